@@ -9,6 +9,7 @@ import org.geotools.api.data.ServiceInfo;
 import org.geotools.api.data.Transaction;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.filter.Filter;
+import org.geotools.data.dxf.header.DXFEntityFilter;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.database.AbstractFileDataStore;
 import org.geotools.data.FilteringFeatureReader;
@@ -20,6 +21,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * DataStore for reading a DXF file produced by Autodesk.
@@ -39,13 +43,19 @@ import java.util.ArrayList;
 public class DXFDataStore extends AbstractFileDataStore {
     private InputStream stream;
     private URL url;
-    private FeatureReader featureReader;
+    /* the parsed file, shared by all readers */
+    private DXFFeatureReader parsed;
     private String srs;
     private String targetSrs;
     private String strippedFileName;
-    private String typeName;
+    private volatile String typeName;
     private ArrayList dxfInsertsFilter = new ArrayList();
     private AffineTransform transform;
+    private boolean pipelined = false;
+    private boolean streaming = false;
+    private boolean cached = false;
+    private boolean snapshot = false;
+    private boolean lazy = false;
 
     public DXFDataStore(URL url, String srs, AffineTransform transform) throws IOException {
         this(url, null, srs, null, transform);
@@ -64,11 +74,28 @@ public class DXFDataStore extends AbstractFileDataStore {
         this.transform = transform;
     }
 
+    /**
+     * Returns the extents from the header of the file. If the file has not
+     * been parsed yet, only the HEADER section is read, unless the data
+     * store reads a stream.
+     */
     @Override
     public ReferencedEnvelope getBounds(Query query) throws IOException {
         if (query.getFilter().equals(Filter.INCLUDE)) {
+            DXFFeatureReader parsed = getParsedIfAvailable();
+            if (parsed != null) {
+                return parsed.getBounds();
+            }
+            if (stream == null) {
+                SimpleFeatureType schema = DXFFeatureReader.createFeatureType("", srs);
+                return DXFFeatureReader.readBounds(url, transform, schema.getCoordinateReferenceSystem());
+            }
             FeatureReader reader = getFeatureReader("");
-            return ((DXFFeatureReader)reader).getBounds();
+            try {
+                return ((DXFFeatureReader)reader).getBounds();
+            } finally {
+                reader.close();
+            }
         }
         else
             return null;
@@ -105,6 +132,58 @@ public class DXFDataStore extends AbstractFileDataStore {
         }
     }
 
+    /**
+     * Inflate compressed files on a separate thread while parsing. Parsing
+     * is then sequential, so this pays off when inflating takes about as
+     * long as parsing.
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * Read the entities while iterating, so only the header, tables and
+     * blocks are kept in memory. Every reader rereads the file. A stream can
+     * only be read once, so a data store reading from a stream is never
+     * streaming.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Share the parsed features of local files with other data stores through
+     * {@link DXFFeatureCache}. Disabled by default.
+     */
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+
+    /**
+     * Read local files from a binary snapshot stored next to them as
+     * file.dxf.gtdx. The snapshot is written on the first read and rewritten
+     * when the file changes.
+     */
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Index the entities of local uncompressed ASCII files and decode them
+     * only when their features are read, instead of decoding the whole file
+     * up front. Other input is read as usual.
+     *
+     * The feature ids differ from the ids of the other modes, which number
+     * the features in file order. In lazy mode the features of an entity
+     * get the position of the entity in the ENTITIES section as id, and the
+     * features of an insert that position followed by a dot and their number
+     * within the insert, such as "12" and "13.0", "13.1". These ids do not
+     * depend on the entities skipped by a query filter.
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     public void addDXFInsertFilter(String[] filteredNames) {
         dxfInsertsFilter.addAll(java.util.Arrays.asList(filteredNames));
     }
@@ -113,9 +192,17 @@ public class DXFDataStore extends AbstractFileDataStore {
         dxfInsertsFilter.add(filteredName);
     }
 
+    /**
+     * Returns the feature type without reading the file, as the attributes
+     * are the same for every file. The readers of the type name return
+     * features of this type.
+     */
     public SimpleFeatureType getSchema(String typeName) throws IOException {
-        // Update featureReader with typename and return SimpleFeatureType
-        return (SimpleFeatureType) getFeatureReader(typeName).getFeatureType();
+        if (typeName == null) {
+            typeName = "";
+        }
+        this.typeName = typeName;
+        return DXFFeatureReader.createFeatureType(typeName, srs);
     }
 
     @Override
@@ -123,55 +210,133 @@ public class DXFDataStore extends AbstractFileDataStore {
         return getSchema(typeName);
     }
 
+    /**
+     * Returns a new reader. Readers do not share their iteration, so they can
+     * be used concurrently; the file is parsed once and the features are
+     * shared, unless the data store is streaming.
+     */
     public FeatureReader getFeatureReader(String typeName) throws IOException {
-        // Update featureReader for this typename
-        resetFeatureReader(typeName);
-        return featureReader;
+        return getFeatureReader(typeName, (DXFEntityFilter) null);
+    }
+
+    private DXFFeatureReader getFeatureReader(String typeName, DXFEntityFilter entityFilter) throws IOException {
+        if (typeName == null) {
+            typeName = "";
+        }
+        this.typeName = typeName;
+
+        // Get geometryType from typeName (GeometryType)(typeName - fileName)
+        String extension = typeName.replaceFirst(strippedFileName, "");
+        GeometryType geometryType = GeometryType.getTypeByExtension(extension);
+
+        DXFFeatureReader reader;
+        if (streaming && stream == null) {
+            reader = createFeatureReader(typeName, geometryType, true);
+        } else {
+            reader = new DXFFeatureReader(getParsed(typeName, geometryType), typeName, geometryType);
+        }
+        reader.setEntityFilter(entityFilter);
+        return reader;
+    }
+
+    /**
+     * Returns a reader over the features accepted by the filter. Entities
+     * that can not match the layer, class, BBOX and Intersects restrictions
+     * of the filter are skipped by the reader, see {@link DXFFilterAnalyzer};
+     * the features of a parsed file are looked up in its spatial index.
+     */
+    private FeatureReader getFeatureReader(String typeName, Filter filter) throws IOException {
+        DXFFeatureReader reader = getFeatureReader(typeName, DXFFilterAnalyzer.getEntityFilter(filter));
+        reader.setBBoxFilters(DXFFilterAnalyzer.getBBoxes(filter));
+        reader.setWindow(DXFFilterAnalyzer.getWindow(filter));
+        Filter unsupported = getUnsupportedFilter(typeName, filter);
+        if (Filter.INCLUDE.equals(unsupported)) {
+            return reader;
+        }
+        return new FilteringFeatureReader(reader, unsupported);
     }
 
     @Override
     public FeatureReader getFeatureReader(String typeName, Query query) throws IOException {
-        return new FilteringFeatureReader(getFeatureReader(typeName), query.getFilter());        
+        return getFeatureReader(typeName, query.getFilter());
     }
 
     @Override
     public FeatureReader getFeatureReader(Query query, Transaction transaction) throws IOException {
-        return new FilteringFeatureReader(getFeatureReader(typeName), query.getFilter());
+        return getFeatureReader(typeName, query.getFilter());
+    }
+
+    /**
+     * BBOX filters on the geometry are evaluated by the reader.
+     */
+    @Override
+    protected Filter getUnsupportedFilter(String typeName, Filter filter) {
+        return DXFFilterAnalyzer.getUnsupportedFilter(filter);
     }
 
     @Override
     public FeatureReader getFeatureReader() throws IOException {
-        if (featureReader == null) {
-            resetFeatureReader(typeName);
-        }
-        return featureReader;
+        return getFeatureReader(typeName);
     }
 
+    /**
+     * Parses the file, if it has not been parsed yet.
+     */
     public void resetFeatureReader(String typeName) throws IOException {
-        if (typeName == null) {
-            typeName = "";
-        }
-        this.typeName = typeName;
+        getFeatureReader(typeName).close();
+    }
 
-        // Get geometryType from typeName (GeometryType)(typeName - fileName)
-        String extension = typeName.replaceFirst(strippedFileName, "");
-        GeometryType geometryType = GeometryType.getTypeByExtension(extension);
+    private synchronized DXFFeatureReader getParsedIfAvailable() {
+        return parsed;
+    }
 
-        if (featureReader == null) {
-            try {
-                featureReader = new DXFFeatureReader(url, stream, typeName, srs, targetSrs, geometryType, dxfInsertsFilter, transform);
-            } catch (DXFParseException e) {
-                throw new IOException("DXF parse exception" + e.getLocalizedMessage());
+    private synchronized DXFFeatureReader getParsed(final String typeName, final GeometryType geometryType) throws IOException {
+        if (parsed == null) {
+            DXFFeatureCache.Key key = cached && stream == null
+                    ? DXFFeatureCache.getKey(url, srs, targetSrs, transform, dxfInsertsFilter, lazy) : null;
+            if (key != null) {
+                parsed = DXFFeatureCache.get(key, new Callable<DXFFeatureReader>() {
+                    public DXFFeatureReader call() throws IOException {
+                        return createFeatureReader(typeName, geometryType, false);
+                    }
+                });
+            } else {
+                parsed = createFeatureReader(typeName, geometryType, false);
             }
-        } else {
-            ((DXFFeatureReader) featureReader).updateTypeFilter(typeName, geometryType, srs);
+        }
+        return parsed;
+    }
+
+    private DXFFeatureReader createFeatureReader(String typeName, GeometryType geometryType, boolean streaming) throws IOException {
+        Set<DXFFeatureReader.Option> options = EnumSet.noneOf(DXFFeatureReader.Option.class);
+        if (pipelined) {
+            options.add(DXFFeatureReader.Option.PIPELINED);
+        }
+        if (streaming) {
+            options.add(DXFFeatureReader.Option.STREAMING);
+        }
+        if (snapshot) {
+            options.add(DXFFeatureReader.Option.SNAPSHOT);
+        }
+        if (lazy) {
+            options.add(DXFFeatureReader.Option.LAZY);
+        }
+        try {
+            return new DXFFeatureReader(url, stream, typeName, srs, targetSrs, geometryType, dxfInsertsFilter, transform, options);
+        } catch (DXFParseException e) {
+            throw new IOException("DXF parse exception" + e.getLocalizedMessage());
         }
     }
 
     @Override
     public ServiceInfo getInfo() {
         try {
-            return ((DXFFeatureReader) getFeatureReader()).getInfo();
+            FeatureReader reader = getFeatureReader();
+            try {
+                return ((DXFFeatureReader) reader).getInfo();
+            } finally {
+                reader.close();
+            }
         } catch (IOException ex) {
             return null;
         }
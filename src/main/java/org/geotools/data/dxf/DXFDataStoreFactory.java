@@ -28,6 +28,11 @@ public class DXFDataStoreFactory implements FileDataStoreFactorySpi {
     public static final DataStoreFactorySpi.Param PARAM_SRS = new DataStoreFactorySpi.Param("srs", String.class, "srs for the .dxf file");
     public static final DataStoreFactorySpi.Param PARAM_TARGET_SRS = new DataStoreFactorySpi.Param("target srs", String.class, "target srs; optional; used for converting text rotation angles");
     public static final DataStoreFactorySpi.Param PARAM_AFFINE_TRANSFORM = new DataStoreFactorySpi.Param("transform", AffineTransform.class, "affine transform performed to the geometries");
+    public static final DataStoreFactorySpi.Param PARAM_PIPELINED = new DataStoreFactorySpi.Param("pipelined", Boolean.class, "inflate compressed files on a separate thread while parsing; optional");
+    public static final DataStoreFactorySpi.Param PARAM_STREAMING = new DataStoreFactorySpi.Param("streaming", Boolean.class, "read the entities while iterating instead of keeping all features in memory; optional");
+    public static final DataStoreFactorySpi.Param PARAM_CACHED = new DataStoreFactorySpi.Param("cached", Boolean.class, "share the parsed features of local files between data stores; optional");
+    public static final DataStoreFactorySpi.Param PARAM_SNAPSHOT = new DataStoreFactorySpi.Param("snapshot", Boolean.class, "read local files from a binary snapshot stored next to them; optional");
+    public static final DataStoreFactorySpi.Param PARAM_LAZY = new DataStoreFactorySpi.Param("lazy", Boolean.class, "decode entities only when their features are read; optional");
 
     public DXFDataStoreFactory() {
 
@@ -126,7 +131,7 @@ public class DXFDataStoreFactory implements FileDataStoreFactorySpi {
     }
 
     public DataStoreFactorySpi.Param[] getParametersInfo() {
-        return new DataStoreFactorySpi.Param[] {PARAM_URL, PARAM_SRS, PARAM_TARGET_SRS, PARAM_AFFINE_TRANSFORM};
+        return new DataStoreFactorySpi.Param[] {PARAM_URL, PARAM_SRS, PARAM_TARGET_SRS, PARAM_AFFINE_TRANSFORM, PARAM_PIPELINED, PARAM_STREAMING, PARAM_CACHED, PARAM_SNAPSHOT, PARAM_LAZY};
     }
 
     public Map getImplementationHints() {
@@ -161,11 +166,23 @@ public class DXFDataStoreFactory implements FileDataStoreFactorySpi {
         if(!canProcess(params)) {
             throw new FileNotFoundException( "DXF file not found: " + params);
         }
+        DXFDataStore dataStore;
         if (params.containsKey(PARAM_INPUT_STREAM.key)) {
-            return new DXFDataStore(null, (InputStream)params.get(PARAM_INPUT_STREAM.key), (String)params.get(PARAM_SRS.key), (String)params.get(PARAM_TARGET_SRS.key), (AffineTransform)params.get(PARAM_AFFINE_TRANSFORM.key));
+            dataStore = new DXFDataStore(null, (InputStream)params.get(PARAM_INPUT_STREAM.key), (String)params.get(PARAM_SRS.key), (String)params.get(PARAM_TARGET_SRS.key), (AffineTransform)params.get(PARAM_AFFINE_TRANSFORM.key));
         } else {
-            return new DXFDataStore((URL)params.get(PARAM_URL.key), null, (String)params.get(PARAM_SRS.key), (String)params.get(PARAM_TARGET_SRS.key), (AffineTransform)params.get(PARAM_AFFINE_TRANSFORM.key));
+            dataStore = new DXFDataStore((URL)params.get(PARAM_URL.key), null, (String)params.get(PARAM_SRS.key), (String)params.get(PARAM_TARGET_SRS.key), (AffineTransform)params.get(PARAM_AFFINE_TRANSFORM.key));
         }
+        Boolean pipelined = (Boolean) PARAM_PIPELINED.lookUp(params);
+        dataStore.setPipelined(pipelined != null && pipelined);
+        Boolean streaming = (Boolean) PARAM_STREAMING.lookUp(params);
+        dataStore.setStreaming(streaming != null && streaming);
+        Boolean cached = (Boolean) PARAM_CACHED.lookUp(params);
+        dataStore.setCached(cached != null && cached);
+        Boolean snapshot = (Boolean) PARAM_SNAPSHOT.lookUp(params);
+        dataStore.setSnapshot(snapshot != null && snapshot);
+        Boolean lazy = (Boolean) PARAM_LAZY.lookUp(params);
+        dataStore.setLazy(lazy != null && lazy);
+        return dataStore;
     }
 
     public DataStore createNewDataStore(Map params) throws IOException {
@@ -0,0 +1,219 @@
+package org.geotools.data.dxf;
+
+import java.awt.geom.AffineTransform;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.geotools.data.DataUtilities;
+
+/**
+ * Process wide cache of parsed DXF files, shared by the data stores that
+ * enable it with {@link DXFDataStore#setCached(boolean)}. Files are
+ * identified by url, size and modification time, and by the options that
+ * change the features. The least recently used files are evicted when the
+ * estimated size of the cached features exceeds the maximum size, by
+ * default a quarter of the maximum heap size.
+ *
+ * Only local files are cached, as the modification time of other urls can
+ * not be checked cheaply.
+ */
+public final class DXFFeatureCache {
+    private static long maximumSize = Runtime.getRuntime().maxMemory() / 4;
+    private static long size = 0;
+    private static long hitCount = 0;
+    private static long missCount = 0;
+    private static long evictionCount = 0;
+
+    private static final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+    private static final Map<Key, FutureTask<DXFFeatureReader>> loading = new HashMap<Key, FutureTask<DXFFeatureReader>>();
+
+    private DXFFeatureCache() {
+    }
+
+    private static final class Entry {
+        final DXFFeatureReader parsed;
+        final long size;
+
+        Entry(DXFFeatureReader parsed, long size) {
+            this.parsed = parsed;
+            this.size = size;
+        }
+    }
+
+    static final class Key {
+        private final String url;
+        private final long length;
+        private final long lastModified;
+        private final String srs;
+        private final String targetSrs;
+        private final AffineTransform transform;
+        private final List dxfInsertsFilter;
+        private final boolean lazy;
+
+        private Key(String url, long length, long lastModified, String srs, String targetSrs, AffineTransform transform, List dxfInsertsFilter, boolean lazy) {
+            this.url = url;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.srs = srs;
+            this.targetSrs = targetSrs;
+            this.transform = transform == null ? null : new AffineTransform(transform);
+            this.dxfInsertsFilter = new ArrayList(dxfInsertsFilter);
+            this.lazy = lazy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return url.equals(k.url) && length == k.length && lastModified == k.lastModified
+                    && Objects.equals(srs, k.srs) && Objects.equals(targetSrs, k.targetSrs)
+                    && Objects.equals(transform, k.transform) && dxfInsertsFilter.equals(k.dxfInsertsFilter)
+                    && lazy == k.lazy;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, length, lastModified, srs, targetSrs, transform, dxfInsertsFilter, lazy);
+        }
+    }
+
+    /**
+     * Returns the key of a local file, or null if the url can not be cached.
+     */
+    static Key getKey(URL url, String srs, String targetSrs, AffineTransform transform, List dxfInsertsFilter, boolean lazy) {
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        File file = DataUtilities.urlToFile(url);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        return new Key(file.getAbsolutePath(), file.length(), file.lastModified(), srs, targetSrs, transform, dxfInsertsFilter, lazy);
+    }
+
+    /**
+     * Returns the cached parsed file, or parses it with the loader. A file
+     * requested by several threads at once is parsed only once.
+     */
+    static DXFFeatureReader get(Key key, Callable<DXFFeatureReader> loader) throws IOException {
+        FutureTask<DXFFeatureReader> task;
+        boolean load = false;
+        synchronized (DXFFeatureCache.class) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount++;
+                return entry.parsed;
+            }
+            missCount++;
+            task = loading.get(key);
+            if (task == null) {
+                task = new FutureTask<DXFFeatureReader>(loader);
+                loading.put(key, task);
+                load = true;
+            }
+        }
+
+        if (load) {
+            task.run();
+        }
+        try {
+            DXFFeatureReader parsed = task.get();
+            if (load) {
+                put(key, parsed);
+            }
+            return parsed;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            if (load) {
+                synchronized (DXFFeatureCache.class) {
+                    loading.remove(key);
+                }
+            }
+        }
+    }
+
+    private static synchronized void put(Key key, DXFFeatureReader parsed) {
+        long entrySize = parsed.getEstimatedSize();
+        if (entrySize > maximumSize) {
+            return;
+        }
+        Entry old = entries.put(key, new Entry(parsed, entrySize));
+        if (old != null) {
+            size -= old.size;
+        }
+        size += entrySize;
+        evict();
+    }
+
+    private static void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (size > maximumSize && it.hasNext()) {
+            size -= it.next().size;
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Sets the maximum estimated size of the cached features in bytes. 0
+     * disables the cache.
+     */
+    public static synchronized void setMaximumSize(long bytes) {
+        maximumSize = bytes;
+        evict();
+    }
+
+    public static synchronized long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the estimated size of the cached features in bytes.
+     */
+    public static synchronized long getSize() {
+        return size;
+    }
+
+    public static synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public static synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public static synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public static synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+}
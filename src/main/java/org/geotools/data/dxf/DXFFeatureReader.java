@@ -6,9 +6,11 @@ package org.geotools.data.dxf;
 import org.geotools.api.data.DataSourceException;
 import org.geotools.api.data.FeatureReader;
 import org.geotools.api.data.ServiceInfo;
+import org.geotools.api.filter.spatial.BBOX;
 import org.geotools.api.feature.IllegalAttributeException;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.geometry.BoundingBox;
 import org.geotools.api.geometry.MismatchedDimensionException;
 import org.geotools.api.geometry.Position;
 import org.geotools.api.referencing.FactoryException;
@@ -20,20 +22,34 @@ import org.geotools.api.referencing.operation.TransformException;
 import org.geotools.data.dxf.entities.DXFEntity;
 import org.geotools.data.dxf.entities.DXFInsert;
 import org.geotools.data.dxf.entities.DXFText;
+import org.geotools.data.dxf.header.DXFBlock;
+import org.geotools.data.dxf.header.DXFEntities;
+import org.geotools.data.dxf.header.DXFEntityFilter;
+import org.geotools.data.dxf.header.DXFHeader;
 import org.geotools.data.dxf.parser.DXFColor;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFEntityIndex;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
 import org.geotools.geometry.Position2D;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.util.AffineTransformation;
+import org.locationtech.jts.index.strtree.STRtree;
 import java.awt.Color;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
@@ -44,9 +60,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.ZipException;
-import java.util.zip.ZipInputStream;
+import java.util.stream.IntStream;
 
 import org.geotools.referencing.NamedIdentifier;
 
@@ -66,9 +80,13 @@ import org.geotools.referencing.operation.transform.AffineTransform2D;
  * @source $URL: http://svn.osgeo.org/geotools/branches/2.7.x/build/maven/javadoc/../../../modules/unsupported/dxf/src/main/java/org/geotools/data/dxf/DXFFeatureReader.java $
  */
 public class DXFFeatureReader implements FeatureReader {
+    /* estimates for getEstimatedSize, in bytes */
+    private static final int FEATURE_SIZE = 700; // A feature with its attribute values, its entity and its spatial index entry
+    private static final int COORDINATE_SIZE = 56; // A Coordinate object with x, y and z, and the reference to it
+    private static final int CHAR_SIZE = 2; // A char of a text attribute
     private SimpleFeatureType ft;
     private Iterator<SimpleFeature> entityIterator;
-    private ArrayList<SimpleFeature> features;
+    private List<SimpleFeature> features;
     private GeometryType geometryType = null;
     private SimpleFeature cache;
     private ArrayList dxfInsertsFilter;
@@ -78,57 +96,116 @@ public class DXFFeatureReader implements FeatureReader {
     private AffineTransform2D transform = null;
     private MathTransform crsTransform = null;
 
+    /* streaming mode: the input positioned in the ENTITIES section */
+    private boolean streaming = false;
+    private DXFInputSource input;
+    private DXFTokenizer entityTokenizer;
+    /* lazy mode: the entities decoded on demand */
+    private DXFEntityIndex index;
+    private int nextEntity = 0;
+    private String idPrefix = null;
+    /* streaming and lazy mode */
+    private DXFEntityFilter entityFilter;
+    private DXFEntityFilter readFilter;
+    private DXFUnivers univers;
+    private AffineTransform2D entityTransform;
+    private ArrayDeque<SimpleFeature> pending;
+    /* the BBOX filters, the intersection of their bounds if known, the
+       window of the query and the intersection of both */
+    private List<BBOX> bboxes;
+    private Envelope bboxWindow;
+    private Envelope queryWindow;
+    private Envelope window;
+    /* eager mode: the spatial index of the features, shared by all readers
+       over them */
+    private FeatureIndex featureIndex;
+
+    /**
+     * How a reader reads its input, see {@link DXFDataStore} for the setters
+     * of the options.
+     */
+    public enum Option {
+        /**
+         * Inflate compressed input on a separate thread while parsing,
+         * instead of inflating it completely before parsing.
+         */
+        PIPELINED,
+        /**
+         * Keep only the sections before ENTITIES in memory and read the
+         * entities while iterating. The reader can then be iterated only once
+         * and must be closed.
+         */
+        STREAMING,
+        /**
+         * Read a local file from its binary snapshot file.dxf.gtdx, writing
+         * the snapshot if it is missing or out of date.
+         */
+        SNAPSHOT,
+        /**
+         * Index the entities of a memory mapped file and decode them while
+         * iterating; ignored when streaming and for other input. The feature
+         * ids are then numbered differently, see
+         * {@link DXFDataStore#setLazy(boolean)}.
+         */
+        LAZY
+    }
+
     public DXFFeatureReader(URL url, InputStream stream, String typeName, String srs, String targetCrs, GeometryType geometryType, ArrayList dxfInsertsFilter, AffineTransform transform) throws IOException, DXFParseException {
-        InputStream cis = null;
-        DXFLineNumberReader lnr = null;
+        this(url, stream, typeName, srs, targetCrs, geometryType, dxfInsertsFilter, transform, EnumSet.noneOf(Option.class));
+    }
+
+    /**
+     * @param options how to read the input, none to read it as the other
+     * constructor does
+     */
+    public DXFFeatureReader(URL url, InputStream stream, String typeName, String srs, String targetCrs, GeometryType geometryType, ArrayList dxfInsertsFilter, AffineTransform transform, Set<Option> options) throws IOException, DXFParseException {
+        boolean pipelined = options.contains(Option.PIPELINED);
+        boolean streaming = options.contains(Option.STREAMING);
+        boolean snapshot = options.contains(Option.SNAPSHOT);
+        boolean lazy = options.contains(Option.LAZY);
+        DXFInputSource source = null;
         if (transform != null)
             this.transform = new AffineTransform2D(transform);
 
         try {
-            if (stream != null) {
-                cis = new BufferedInputStream(stream, 64 * 1024);
+            DXFUnivers theUnivers = new DXFUnivers(dxfInsertsFilter);
+            source = DXFInputSource.open(url, stream, snapshot);
+            DXFTokenizer tokenizer = null;
+            if (streaming) {
+                tokenizer = openTokenizer(source, pipelined);
+                if (!theUnivers.readToEntities(tokenizer)) {
+                    tokenizer.close();
+                    tokenizer = null;
+                }
+            } else if (lazy && source.getBuffers() != null && source.getBuffers().length == 1) {
+                ByteBuffer data = source.getBuffers()[0];
+                index = theUnivers.index(data);
+                if (index == null) {
+                    theUnivers.read(data);
+                }
+            } else if (source.getBuffers() != null) {
+                theUnivers.read(source.getBuffers());
+            } else if (pipelined && source.getCompression() != DXFInputSource.Compression.NONE) {
+                try (DXFTokenizer pipeline = DXFTokenizer.create(new DXFPipelineInputStream(source.getInputStream()))) {
+                    theUnivers.read(pipeline);
+                }
             } else {
-                cis = new BufferedInputStream(url.openStream(), 64 * 1024);
-            }
-            cis.mark(9192);
-            try {
-                GZIPInputStream gzip = new GZIPInputStream(cis, 64 * 1024);
-                cis = gzip;
-            } catch (IOException ex) {
-                try {
-                    cis.reset();
-                    if (url != null && url.getFile().toString().toLowerCase().endsWith(".zip")) {
-                        ZipInputStream zip = new ZipInputStream(cis);
-                        if (zip.getNextEntry() != null)
-                            cis = zip;
-                        else
-                            cis.reset();
-                    }
-                } catch (ZipException ex2) {
-                    cis.reset();
-                } catch (IOException ex2) {
-                    cis.reset();
+                // Other input is streamed through the tokenizer rather than
+                // read into memory, so its size is not limited by the heap
+                try (DXFTokenizer in = DXFTokenizer.create(source.getInputStream())) {
+                    theUnivers.read(in);
                 }
             }
-            lnr = new DXFLineNumberReader(new InputStreamReader(new BufferedInputStream(cis)));
-            DXFUnivers theUnivers = new DXFUnivers(dxfInsertsFilter);
-            theUnivers.read(lnr);
-            info = theUnivers.getInfo();
-
-            // Affine transform the extents
-            if (theUnivers.getHeader() != null && theUnivers.getHeader()._EXTMIN != null && theUnivers.getHeader()._EXTMAX != null) {
-                double[] extents = new double[]{theUnivers.getHeader()._EXTMIN.X(), theUnivers.getHeader()._EXTMIN.Y(),
-                    theUnivers.getHeader()._EXTMAX.X(), theUnivers.getHeader()._EXTMAX.Y()};
-                if (transform != null)
-                    transform.transform(extents, 0, extents, 0, 2);
+
+            double[] extents = getExtents(theUnivers.getHeader(), transform);
+            if (extents != null) {
                 minX = extents[0];
                 minY = extents[1];
                 maxX = extents[2];
                 maxY = extents[3];
             }
 
-            createFeatureType(typeName, srs);
-            features = new ArrayList<SimpleFeature>(theUnivers.theEntities.size());
+            ft = createFeatureType(typeName, srs);
             AffineTransform tr;
             if (this.transform != null)
                 tr = new AffineTransform(this.transform);
@@ -145,17 +222,32 @@ public class DXFFeatureReader implements FeatureReader {
                 }
             
             AffineTransform2D tr2 = new AffineTransform2D(tr);
-            for (DXFEntity entry : theUnivers.theEntities)
-                processEntity(entry, tr2, ft, -1);
+            if (streaming) {
+                this.streaming = true;
+                univers = theUnivers;
+                entityTokenizer = tokenizer;
+                entityTransform = tr2;
+                pending = new ArrayDeque<SimpleFeature>();
+                input = source;
+                source = null;
+            } else if (index != null) {
+                univers = theUnivers;
+                entityTransform = tr2;
+                pending = new ArrayDeque<SimpleFeature>();
+            } else {
+                ArrayList<SimpleFeature> list = new ArrayList<SimpleFeature>(theUnivers.theEntities.size());
+                for (DXFEntity entry : theUnivers.theEntities)
+                    processEntity(entry, tr2, ft, -1, list);
+                features = Collections.unmodifiableList(list);
+                featureIndex = new FeatureIndex();
+                info = theUnivers.getInfo();
+            }
         } catch (IOException ioe) {
             Logger.getLogger(DXFFeatureReader.class.getName()).log(Level.WARNING, "Error reading data in datastore: ", ioe);
             throw ioe;
         } finally {
-            if (lnr != null) {
-                lnr.close();
-            }
-            if (cis != null) {
-                cis.close();
+            if (source != null) {
+                source.close();
             }
         }
 
@@ -163,11 +255,125 @@ public class DXFFeatureReader implements FeatureReader {
         updateTypeFilter(typeName, geometryType, srs);
     }
 
-    private void processEntity(DXFEntity ent, AffineTransform2D transform, SimpleFeatureType ft, int insertColor) {
+    /**
+     * Creates a reader over the features of a parsed reader. The features are
+     * shared, the iteration is not, so any number of readers over the same
+     * parsed file can be used concurrently.
+     */
+    public DXFFeatureReader(DXFFeatureReader parsed, String typeName, GeometryType geometryType) {
+        if (parsed.isStreaming())
+            throw new IllegalArgumentException("A streaming reader can not be shared");
+        // The features are of the type of the parsed reader; a reader of
+        // another type name returns them as features of its own type
+        if (parsed.ft.getTypeName().equals(typeName)) {
+            ft = parsed.ft;
+        } else {
+            SimpleFeatureTypeBuilder ftb = new SimpleFeatureTypeBuilder();
+            ftb.init(parsed.ft);
+            ftb.setName(typeName);
+            ft = ftb.buildFeatureType();
+        }
+        features = parsed.features;
+        featureIndex = parsed.featureIndex;
+        index = parsed.index;
+        univers = parsed.univers;
+        entityTransform = parsed.entityTransform;
+        crsTransform = parsed.crsTransform;
+        if (index != null)
+            pending = new ArrayDeque<SimpleFeature>();
+        info = parsed.info;
+        minX = parsed.minX;
+        minY = parsed.minY;
+        maxX = parsed.maxX;
+        maxY = parsed.maxY;
+        updateTypeFilter(typeName, geometryType, null);
+    }
+
+    private static DXFTokenizer openTokenizer(DXFInputSource source, boolean pipelined) throws IOException {
+        ByteBuffer[] buffers = source.getBuffers();
+        if (buffers != null)
+            return buffers.length == 1 ? DXFTokenizer.create(buffers[0]) : DXFTokenizer.create(buffers);
+        if (pipelined && source.getCompression() != DXFInputSource.Compression.NONE)
+            return DXFTokenizer.create(new DXFPipelineInputStream(source.getInputStream()));
+        return DXFTokenizer.create(source.getInputStream());
+    }
+
+    /**
+     * Reads entities until at least one feature is pending or the ENTITIES
+     * section ends.
+     */
+    private void readPending() throws IOException {
+        if (features != null) {
+            while (pending.isEmpty() && entityIterator.hasNext()) {
+                SimpleFeature feature = entityIterator.next();
+                if (accept((Geometry) feature.getDefaultGeometry(), feature))
+                    pending.add(feature);
+            }
+            return;
+        }
+        if (index != null) {
+            while (pending.isEmpty() && nextEntity < index.size()) {
+                int i = nextEntity++;
+                if (readFilter != null && !readFilter.accept(index.getType(i),
+                        readFilter.needsLayer() ? DXFEntities.getLayerName(index.getLayer(i), univers) : null, index.getBounds(i)))
+                    continue;
+                DXFEntity entity = univers.readEntity(index, i);
+                if (entity == null)
+                    continue;
+                // Feature ids follow the index, so they do not depend on
+                // the entities skipped before
+                if (entity instanceof DXFInsert) {
+                    idPrefix = i + ".";
+                    featureID = 0;
+                } else {
+                    idPrefix = "";
+                    featureID = i;
+                }
+                processEntity(entity, entityTransform, ft, -1, pending);
+            }
+            return;
+        }
+        while (pending.isEmpty() && entityTokenizer != null) {
+            DXFEntity entity;
+            try {
+                entity = DXFEntities.readEntity(entityTokenizer, univers, readFilter);
+            } catch (IOException ex) {
+                close();
+                throw ex;
+            }
+            if (entity == null) {
+                close();
+                break;
+            }
+            processEntity(entity, entityTransform, ft, -1, pending);
+        }
+    }
+
+    private void processEntity(DXFEntity ent, AffineTransform2D transform, SimpleFeatureType ft, int insertColor, Collection<SimpleFeature> features) {
         if (ent instanceof DXFInsert) {
-            transform = ((DXFInsert)ent).getTransform(transform);
-            for (DXFEntity child : ((DXFInsert)ent).getChildren())
-                processEntity(child, transform, ft, ((DXFInsert)ent).getColor());
+            DXFInsert insert = (DXFInsert) ent;
+            DXFBlock block = insert.getBlock();
+            if (block == null)
+                return;
+            transform = insert.getTransform(transform);
+            // The geometries of the block are built once in block
+            // coordinates, every insert transforms a copy
+            AffineTransformation transformation = new AffineTransformation(
+                    transform.getScaleX(), transform.getShearX(), transform.getTranslateX(),
+                    transform.getShearY(), transform.getScaleY(), transform.getTranslateY());
+            for (int i = 0; i < block.theEntities.size(); i++) {
+                DXFEntity child = block.theEntities.elementAt(i);
+                if (child instanceof DXFInsert) {
+                    processEntity(child, transform, ft, insert.getColor(), features);
+                    continue;
+                }
+                Geometry g = block.getEntityGeometry(i);
+                if (g == null)
+                    continue;
+                if (window != null && !window.intersects(transform(g.getEnvelopeInternal(), transformation)))
+                    continue;
+                addFeature(child, transformation.transform(g), transform, ft, insert.getColor(), features);
+            }
         }
         else {
             Geometry g = ent.getGeometry();
@@ -180,48 +386,94 @@ public class DXFFeatureReader implements FeatureReader {
             } catch (TransformException ex) {
             }
 
-            double rotation = 0;
-            if (ent instanceof DXFText) {
-                double orig = ((DXFText)ent)._rotation;
-                double x = ((DXFText)ent)._point.X();
-                double y = ((DXFText)ent)._point.Y();
-                Matrix matrix = transform.derivative(new Point2D.Double(x, y));
-                double x2 = matrix.getElement(0, 0) * x + matrix.getElement(0, 1) * y;
-                double y2 = matrix.getElement(1, 0) * y + matrix.getElement(1, 1) * y;
-                rotation = orig - 45; // + Math.toDegrees(Math.atan2(y2 - y, x2 - x));
-
-                if (crsTransform != null) 
-                    try {
-                        Position pos1 = crsTransform.transform(new Position2D(ft.getCoordinateReferenceSystem(), x2, y2), null);
-                        Position pos2 = crsTransform.transform(new Position2D(ft.getCoordinateReferenceSystem(), x2 + 1, y2 + 1), null);
-                        rotation = rotation + Math.toDegrees(Math.atan2(pos2.getOrdinate(1) - pos1.getOrdinate(1), pos2.getOrdinate(0) - pos1.getOrdinate(0)));
-                    } catch (MismatchedDimensionException ex) {
-                        Logger.global.log(Level.SEVERE, "ex", ex);
-                    } catch (TransformException ex) {
-                        Logger.global.log(Level.SEVERE, "ex", ex);
-                    }
-            }
-            
-            if (ent.getRefLayer().isVisible() && ent.isVisible())
-                features.add(SimpleFeatureBuilder.build(ft, new Object[]{
-                            g,
-                            ent.getLineTypeName(),
-                            DXFColor.getColor(ent.getActualColor(insertColor)),
-                            ent.getRefLayerName(),
-                            new Double(ent.getThickness()),
-                            rotation, // Text rotation
-                            ((ent instanceof DXFText) ? ((((DXFText)ent)._value != null) && !((DXFText)ent)._value.isEmpty() ? ((DXFText)ent)._value : " ") : " "),
-                            ((ent instanceof DXFText) ? ((DXFText)ent)._height : 1f),
-                            ((ent instanceof DXFText) ? ((DXFText)ent)._align : 0f),
-                            ((ent instanceof DXFText) ? ((DXFText)ent)._align2 : 0f),
-                            new Integer(ent.isVisible() ? 1 : 0),
-                            formatXData(ent.getXData()),
-                            ent.getClass().getSimpleName(),
-                            ent,
-                        }, Integer.toString(featureID++)));
+            addFeature(ent, g, transform, ft, insertColor, features);
         }
     }
+
+    private void addFeature(DXFEntity ent, Geometry g, AffineTransform2D transform, SimpleFeatureType ft, int insertColor, Collection<SimpleFeature> features) {
+        double rotation = 0;
+        if (ent instanceof DXFText) {
+            double orig = ((DXFText)ent)._rotation;
+            double x = ((DXFText)ent)._point.X();
+            double y = ((DXFText)ent)._point.Y();
+            Matrix matrix = transform.derivative(new Point2D.Double(x, y));
+            double x2 = matrix.getElement(0, 0) * x + matrix.getElement(0, 1) * y;
+            double y2 = matrix.getElement(1, 0) * y + matrix.getElement(1, 1) * y;
+            rotation = orig - 45; // + Math.toDegrees(Math.atan2(y2 - y, x2 - x));
+
+            if (crsTransform != null) 
+                try {
+                    Position pos1 = crsTransform.transform(new Position2D(ft.getCoordinateReferenceSystem(), x2, y2), null);
+                    Position pos2 = crsTransform.transform(new Position2D(ft.getCoordinateReferenceSystem(), x2 + 1, y2 + 1), null);
+                    rotation = rotation + Math.toDegrees(Math.atan2(pos2.getOrdinate(1) - pos1.getOrdinate(1), pos2.getOrdinate(0) - pos1.getOrdinate(0)));
+                } catch (MismatchedDimensionException ex) {
+                    Logger.global.log(Level.SEVERE, "ex", ex);
+                } catch (TransformException ex) {
+                    Logger.global.log(Level.SEVERE, "ex", ex);
+                }
+        }
+        
+        if (!ent.getRefLayer().isVisible() || !ent.isVisible())
+            return;
+        if (window != null && !window.intersects(g.getEnvelopeInternal()))
+            return;
+        SimpleFeature feature = SimpleFeatureBuilder.build(ft, new Object[]{
+                        g,
+                        ent.getLineTypeName(),
+                        DXFColor.getColor(ent.getActualColor(insertColor)),
+                        ent.getRefLayerName(),
+                        new Double(ent.getThickness()),
+                        rotation, // Text rotation
+                        ((ent instanceof DXFText) ? ((((DXFText)ent)._value != null) && !((DXFText)ent)._value.isEmpty() ? ((DXFText)ent)._value : " ") : " "),
+                        ((ent instanceof DXFText) ? ((DXFText)ent)._height : 1f),
+                        ((ent instanceof DXFText) ? ((DXFText)ent)._align : 0f),
+                        ((ent instanceof DXFText) ? ((DXFText)ent)._align2 : 0f),
+                        new Integer(ent.isVisible() ? 1 : 0),
+                        formatXData(ent.getXData()),
+                        ent.getClass().getSimpleName(),
+                        ent,
+                    }, nextFeatureID());
+        if (accept(g, feature))
+            features.add(feature);
+    }
+
+    /**
+     * Returns the envelope of the transformed corners of an envelope.
+     */
+    private static Envelope transform(Envelope envelope, AffineTransformation transformation) {
+        Envelope result = new Envelope();
+        Coordinate c = new Coordinate();
+        transformation.transform(new Coordinate(envelope.getMinX(), envelope.getMinY()), c);
+        result.expandToInclude(c);
+        transformation.transform(new Coordinate(envelope.getMaxX(), envelope.getMinY()), c);
+        result.expandToInclude(c);
+        transformation.transform(new Coordinate(envelope.getMaxX(), envelope.getMaxY()), c);
+        result.expandToInclude(c);
+        transformation.transform(new Coordinate(envelope.getMinX(), envelope.getMaxY()), c);
+        result.expandToInclude(c);
+        return result;
+    }
+
+    /**
+     * Checks a feature against the BBOX filters.
+     */
+    private boolean accept(Geometry g, SimpleFeature feature) {
+        if (bboxes == null)
+            return true;
+        if (g == null || window != null && !window.intersects(g.getEnvelopeInternal()))
+            return false;
+        for (BBOX bbox : bboxes)
+            if (!bbox.evaluate(feature))
+                return false;
+        return true;
+    }
     
+    private String nextFeatureID() {
+        if (idPrefix == null)
+            return Integer.toString(featureID++);
+        return idPrefix + featureID++;
+    }
+
     private String formatXData(Map<String, List<String>> xdata) {
         if (xdata == null)
             return null;
@@ -238,6 +490,26 @@ public class DXFFeatureReader implements FeatureReader {
         return String.join(",", entries);
     }
     
+    /**
+     * Estimates the memory used by the features in bytes, including their
+     * entities.
+     */
+    public long getEstimatedSize() {
+        if (index != null)
+            return index.getMemorySize() + univers.getEstimatedSize();
+        long size = 0;
+        for (SimpleFeature f : features) {
+            size += FEATURE_SIZE;
+            Geometry g = (Geometry) f.getDefaultGeometry();
+            if (g != null)
+                size += (long) COORDINATE_SIZE * g.getNumPoints();
+            Object text = f.getAttribute("text");
+            if (text instanceof String)
+                size += (long) CHAR_SIZE * ((String) text).length();
+        }
+        return size;
+    }
+
     public ReferencedEnvelope getBounds() {
         if (ft != null)
             return new ReferencedEnvelope(minY, maxY, minX, maxX, ft.getCoordinateReferenceSystem());
@@ -245,12 +517,214 @@ public class DXFFeatureReader implements FeatureReader {
             return null;
     }
 
+    /**
+     * Reads the bounds of a file like {@link #getBounds()}, from the HEADER
+     * section only. The other sections are not read.
+     */
+    public static ReferencedEnvelope readBounds(URL url, AffineTransform transform, CoordinateReferenceSystem crs) throws IOException {
+        DXFUnivers theUnivers = new DXFUnivers(new ArrayList());
+        try (DXFInputSource source = DXFInputSource.open(url, null, false);
+                DXFTokenizer tokenizer = openTokenizer(source, false)) {
+            theUnivers.readHeader(tokenizer);
+        }
+        double[] extents = getExtents(theUnivers.getHeader(), transform);
+        if (extents == null)
+            extents = new double[]{50, 50, 100, 100};
+        return new ReferencedEnvelope(extents[1], extents[3], extents[0], extents[2], crs);
+    }
+
+    /**
+     * Returns the affine transformed $EXTMIN and $EXTMAX as minX, minY, maxX,
+     * maxY, or null if the header has no extents.
+     */
+    private static double[] getExtents(DXFHeader header, AffineTransform transform) {
+        if (header == null || header._EXTMIN == null || header._EXTMAX == null)
+            return null;
+        double[] extents = new double[]{header._EXTMIN.X(), header._EXTMIN.Y(),
+            header._EXTMAX.X(), header._EXTMAX.Y()};
+        if (transform != null)
+            transform.transform(extents, 0, extents, 0, 2);
+        return extents;
+    }
+
+    /**
+     * Restarts the iteration. A streaming reader can not be restarted, its
+     * iteration continues where it was.
+     */
     public void updateTypeFilter(String typeName, GeometryType geometryType, String srs) {
         this.geometryType = geometryType;
-        entityIterator = features.iterator();
+        if (index != null) {
+            nextEntity = 0;
+        } else if (!streaming) {
+            entityIterator = iterateFeatures();
+        }
+        if (pending != null)
+            pending.clear();
     }
 
-    private void createFeatureType(String typeName, String srs) throws DataSourceException {
+    /**
+     * Skips the entities the filter does not accept without decoding them.
+     * Only streaming and lazy readers decode entities while iterating, for
+     * other readers the filter has no effect. Set it before iterating.
+     */
+    public void setEntityFilter(DXFEntityFilter entityFilter) {
+        this.entityFilter = entityFilter;
+        updateReadFilter();
+    }
+
+    /**
+     * Returns only the features accepted by all BBOX filters. Entities whose
+     * coordinates are outside the bounds of the filters are skipped before
+     * their geometry is created, the other features are evaluated against
+     * the filters. Set them before iterating.
+     */
+    public void setBBoxFilters(List<BBOX> filters) {
+        bboxes = null;
+        bboxWindow = null;
+        if (filters != null && !filters.isEmpty()) {
+            bboxes = new ArrayList<BBOX>(filters);
+            for (BBOX bbox : bboxes) {
+                BoundingBox bounds = bbox.getBounds();
+                Envelope envelope = bounds == null || bounds.isEmpty() ? new Envelope()
+                        : new Envelope(bounds.getMinX(), bounds.getMaxX(), bounds.getMinY(), bounds.getMaxY());
+                if (bounds != null && bounds.getCoordinateReferenceSystem() != null && ft != null
+                        && !CRS.equalsIgnoreMetadata(bounds.getCoordinateReferenceSystem(), ft.getCoordinateReferenceSystem())) {
+                    // Reprojected by the filter, so only the filter can tell
+                    envelope = null;
+                }
+                if (envelope != null)
+                    bboxWindow = bboxWindow == null ? envelope : bboxWindow.intersection(envelope);
+            }
+            if (features != null && pending == null)
+                pending = new ArrayDeque<SimpleFeature>();
+        }
+        updateWindow();
+    }
+
+    /**
+     * Returns only the features whose geometry has an envelope intersecting
+     * the window, given in the coordinates of the features. Like the bounds
+     * of BBOX filters, the window is used to skip entities before their
+     * geometry is created and to look up features in the spatial index of a
+     * parsed file. Set it before iterating.
+     *
+     * @param window the window, or null for all features
+     */
+    public void setWindow(Envelope window) {
+        queryWindow = window == null ? null : new Envelope(window);
+        updateWindow();
+    }
+
+    private void updateWindow() {
+        if (bboxWindow == null)
+            window = queryWindow;
+        else if (queryWindow == null)
+            window = bboxWindow;
+        else
+            window = bboxWindow.intersection(queryWindow);
+        updateReadFilter();
+        if (features != null)
+            entityIterator = iterateFeatures();
+    }
+
+    private void updateReadFilter() {
+        Envelope dxfWindow = toDXF(window);
+        if (dxfWindow == null)
+            readFilter = entityFilter;
+        else if (entityFilter == null)
+            readFilter = new DXFEntityFilter(null, null, dxfWindow);
+        else
+            readFilter = entityFilter.withWindow(dxfWindow);
+    }
+
+    /**
+     * Returns the features of a parsed file in the window, in their order,
+     * looked up in the spatial index.
+     */
+    private Iterator<SimpleFeature> iterateFeatures() {
+        if (window == null)
+            return features.iterator();
+        if (window.isNull())
+            return Collections.<SimpleFeature>emptyIterator();
+        List hits = featureIndex.getTree(features).query(window);
+        int[] indexes = new int[hits.size()];
+        for (int i = 0; i < indexes.length; i++)
+            indexes[i] = (Integer) hits.get(i);
+        Arrays.sort(indexes);
+        List<SimpleFeature> result = new ArrayList<SimpleFeature>(indexes.length);
+        for (int i : indexes)
+            result.add(features.get(i));
+        return result.iterator();
+    }
+
+    /**
+     * Packed R-tree over the envelopes of the features of a parsed file, built
+     * on the first lookup. The items are the indexes of the features. Once
+     * built, the tree is only read, so it can be queried concurrently.
+     */
+    private static final class FeatureIndex {
+        private STRtree tree;
+
+        synchronized STRtree getTree(List<SimpleFeature> features) {
+            if (tree == null) {
+                final Envelope[] envelopes = new Envelope[features.size()];
+                IntStream.range(0, envelopes.length).parallel().forEach(i -> {
+                    Geometry g = (Geometry) features.get(i).getDefaultGeometry();
+                    if (g != null)
+                        envelopes[i] = g.getEnvelopeInternal();
+                });
+                STRtree t = new STRtree();
+                for (int i = 0; i < envelopes.length; i++)
+                    if (envelopes[i] != null && !envelopes[i].isNull())
+                        t.insert(envelopes[i], i);
+                t.build();
+                tree = t;
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * Transforms an envelope in the coordinates of the features to the
+     * envelope of its corners in DXF coordinates.
+     */
+    private Envelope toDXF(Envelope envelope) {
+        if (envelope == null || entityTransform == null)
+            return null;
+        if (envelope.isNull())
+            return envelope;
+        double[] corners = new double[]{envelope.getMinX(), envelope.getMinY(), envelope.getMaxX(), envelope.getMinY(),
+            envelope.getMaxX(), envelope.getMaxY(), envelope.getMinX(), envelope.getMaxY()};
+        try {
+            entityTransform.createInverse().transform(corners, 0, corners, 0, 4);
+        } catch (NoninvertibleTransformException ex) {
+            return null;
+        }
+        Envelope result = new Envelope();
+        for (int i = 0; i < corners.length; i += 2)
+            result.expandToInclude(corners[i], corners[i + 1]);
+        // Against rounding errors of the transform
+        result.expandBy(1e-9 * (Math.abs(result.getMinX()) + Math.abs(result.getMaxX())
+                + Math.abs(result.getMinY()) + Math.abs(result.getMaxY())));
+        return result;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Returns the index of the entities if the reader decodes them while
+     * iterating, otherwise null.
+     */
+    public DXFEntityIndex getEntityIndex() {
+        return index;
+    }
+
+    /**
+     * Creates the feature type, which has the same attributes for every file.
+     */
+    public static SimpleFeatureType createFeatureType(String typeName, String srs) throws DataSourceException {
         CoordinateReferenceSystem crs = null;
         try {
             String authority = "EPSG";
@@ -300,7 +774,7 @@ public class DXFFeatureReader implements FeatureReader {
             ftb.add("class", String.class);
             ftb.add("entity", DXFEntity.class);
 
-            ft = ftb.buildFeatureType();
+            return ftb.buildFeatureType();
 
         } catch (Exception e) {
             throw new DataSourceException("Error creating SimpleFeatureType: " + typeName, e);
@@ -312,21 +786,47 @@ public class DXFFeatureReader implements FeatureReader {
     }
 
     public SimpleFeature next() throws IOException, IllegalAttributeException, NoSuchElementException {
-        return entityIterator.next();
+        if (pending != null) {
+            readPending();
+            if (pending.isEmpty())
+                throw new NoSuchElementException();
+            return pending.poll();
+        }
+        SimpleFeature feature = entityIterator.next();
+        if (feature.getFeatureType() != ft) {
+            feature = SimpleFeatureBuilder.build(ft, feature.getAttributes(), feature.getID());
+        }
+        return feature;
     }
 
     public boolean hasNext() throws IOException {
+        if (pending != null) {
+            readPending();
+            return !pending.isEmpty();
+        }
         return entityIterator.hasNext();
     }
 
     public ServiceInfo getInfo() {
         DefaultServiceInfo serviceInfo = new DefaultServiceInfo();
         serviceInfo.setTitle("DXF FeatureReader");
-        serviceInfo.setDescription(info);
+        // Streaming and lazy readers keep looking up symbols while iterating
+        serviceInfo.setDescription(univers != null ? univers.getInfo() : info);
 
         return serviceInfo;
     }
 
     public void close() throws IOException {
+        DXFTokenizer tokenizer = entityTokenizer;
+        DXFInputSource source = input;
+        entityTokenizer = null;
+        input = null;
+        try {
+            if (tokenizer != null)
+                tokenizer.close();
+        } finally {
+            if (source != null)
+                source.close();
+        }
     }
 }
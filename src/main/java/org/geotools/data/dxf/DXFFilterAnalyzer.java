@@ -0,0 +1,241 @@
+package org.geotools.data.dxf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsLike;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.api.filter.spatial.BBOX;
+import org.geotools.api.filter.spatial.Intersects;
+import org.geotools.data.dxf.header.DXFEntityFilter;
+import org.geotools.factory.CommonFactoryFinder;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Derives the restrictions on the "layer" and "class" attributes from a
+ * query filter, so entities that can not match are skipped while parsing.
+ * Comparisons with =, LIKE and their combinations with AND and OR are
+ * understood; the query filter is still applied to the features, so the
+ * restrictions only have to accept at least the matching entities.
+ *
+ * BBOX filters on the geometry that the whole filter requires are evaluated
+ * by the reader itself, see {@link #getBBoxes(Filter)}. Intersects filters
+ * with a literal geometry restrict the features to its envelope, see
+ * {@link #getWindow(Filter)}.
+ */
+final class DXFFilterAnalyzer {
+    static final String LAYER = "layer";
+    static final String CLASS = "class";
+    static final String GEOMETRY = "the_geom";
+
+    private DXFFilterAnalyzer() {
+    }
+
+    /**
+     * @return the entity filter, or null if the filter does not restrict
+     * layers or classes
+     */
+    static DXFEntityFilter getEntityFilter(Filter filter) {
+        Predicate<String> layers = getNames(filter, LAYER);
+        Predicate<String> classes = getNames(filter, CLASS);
+        if (layers == null && classes == null) {
+            return null;
+        }
+        return new DXFEntityFilter(layers, classes);
+    }
+
+    /**
+     * Returns the BBOX filters on the geometry the filter consists of: the
+     * filter itself or the children of an AND.
+     */
+    static List<BBOX> getBBoxes(Filter filter) {
+        if (isGeometryBBox(filter)) {
+            return Collections.singletonList((BBOX) filter);
+        } else if (filter instanceof And) {
+            List<BBOX> bboxes = new ArrayList<BBOX>();
+            for (Filter child : ((And) filter).getChildren()) {
+                if (isGeometryBBox(child)) {
+                    bboxes.add((BBOX) child);
+                }
+            }
+            return bboxes;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the envelope the geometry has to intersect for the Intersects
+     * filters the filter consists of: the filter itself or the children of an
+     * AND. The geometries of the filters are in the coordinates of the
+     * features.
+     *
+     * @return the envelope, or null if the filter has no such restriction
+     */
+    static Envelope getWindow(Filter filter) {
+        Envelope window = getIntersectsEnvelope(filter);
+        if (filter instanceof And) {
+            for (Filter child : ((And) filter).getChildren()) {
+                Envelope envelope = getIntersectsEnvelope(child);
+                if (envelope != null) {
+                    window = window == null ? envelope : window.intersection(envelope);
+                }
+            }
+        }
+        return window;
+    }
+
+    private static Envelope getIntersectsEnvelope(Filter filter) {
+        if (!(filter instanceof Intersects)) {
+            return null;
+        }
+        Intersects intersects = (Intersects) filter;
+        Object value = null;
+        if (isGeometry(intersects.getExpression1()) && intersects.getExpression2() instanceof Literal) {
+            value = ((Literal) intersects.getExpression2()).getValue();
+        } else if (isGeometry(intersects.getExpression2()) && intersects.getExpression1() instanceof Literal) {
+            value = ((Literal) intersects.getExpression1()).getValue();
+        }
+        return value instanceof Geometry ? new Envelope(((Geometry) value).getEnvelopeInternal()) : null;
+    }
+
+    /**
+     * Returns the part of the filter without the filters returned by
+     * {@link #getBBoxes(Filter)}, which the reader does not evaluate.
+     */
+    static Filter getUnsupportedFilter(Filter filter) {
+        if (isGeometryBBox(filter)) {
+            return Filter.INCLUDE;
+        } else if (filter instanceof And) {
+            List<Filter> children = new ArrayList<Filter>();
+            for (Filter child : ((And) filter).getChildren()) {
+                if (!isGeometryBBox(child)) {
+                    children.add(child);
+                }
+            }
+            if (children.size() == ((And) filter).getChildren().size()) {
+                return filter;
+            } else if (children.isEmpty()) {
+                return Filter.INCLUDE;
+            } else if (children.size() == 1) {
+                return children.get(0);
+            }
+            return CommonFactoryFinder.getFilterFactory().and(children);
+        }
+        return filter;
+    }
+
+    private static boolean isGeometryBBox(Filter filter) {
+        if (!(filter instanceof BBOX)) {
+            return false;
+        }
+        BBOX bbox = (BBOX) filter;
+        return isGeometry(bbox.getExpression1()) && bbox.getExpression2() instanceof Literal
+                || isGeometry(bbox.getExpression2()) && bbox.getExpression1() instanceof Literal;
+    }
+
+    private static boolean isGeometry(Expression expression) {
+        // An empty property name refers to the default geometry
+        return expression instanceof PropertyName && (isProperty(expression, GEOMETRY)
+                || "".equals(((PropertyName) expression).getPropertyName()));
+    }
+
+    /**
+     * Returns a predicate accepting at least the values of the attribute for
+     * which the filter can be true, or null if it can be true for any value.
+     */
+    private static Predicate<String> getNames(Filter filter, String attribute) {
+        if (filter instanceof PropertyIsEqualTo) {
+            PropertyIsEqualTo equalTo = (PropertyIsEqualTo) filter;
+            String value = getValue(equalTo.getExpression1(), equalTo.getExpression2(), attribute);
+            if (value == null) {
+                value = getValue(equalTo.getExpression2(), equalTo.getExpression1(), attribute);
+            }
+            if (value == null) {
+                return null;
+            }
+            final String name = value;
+            if (equalTo.isMatchingCase()) {
+                return n -> n.equals(name);
+            }
+            return n -> n.equalsIgnoreCase(name);
+        } else if (filter instanceof PropertyIsLike) {
+            PropertyIsLike like = (PropertyIsLike) filter;
+            if (!isProperty(like.getExpression(), attribute) || like.getLiteral() == null) {
+                return null;
+            }
+            final Pattern pattern = toPattern(like);
+            return n -> pattern.matcher(n).matches();
+        } else if (filter instanceof And) {
+            // Every restricted part restricts the whole
+            Predicate<String> names = null;
+            for (Filter child : ((And) filter).getChildren()) {
+                Predicate<String> childNames = getNames(child, attribute);
+                if (childNames != null) {
+                    names = names == null ? childNames : names.and(childNames);
+                }
+            }
+            return names;
+        } else if (filter instanceof Or) {
+            // All parts have to be restricted
+            Predicate<String> names = null;
+            for (Filter child : ((Or) filter).getChildren()) {
+                Predicate<String> childNames = getNames(child, attribute);
+                if (childNames == null) {
+                    return null;
+                }
+                names = names == null ? childNames : names.or(childNames);
+            }
+            return names;
+        }
+        return null;
+    }
+
+    private static String getValue(Expression property, Expression literal, String attribute) {
+        if (isProperty(property, attribute) && literal instanceof Literal) {
+            Object value = ((Literal) literal).getValue();
+            return value == null ? null : value.toString();
+        }
+        return null;
+    }
+
+    private static boolean isProperty(Expression expression, String attribute) {
+        return expression instanceof PropertyName && attribute.equals(((PropertyName) expression).getPropertyName());
+    }
+
+    private static Pattern toPattern(PropertyIsLike like) {
+        String literal = like.getLiteral();
+        String wildCard = like.getWildCard();
+        String singleChar = like.getSingleChar();
+        String escape = like.getEscape();
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < literal.length(); i++) {
+            if (escape != null && !escape.isEmpty() && literal.startsWith(escape, i) && i + escape.length() < literal.length()) {
+                i += escape.length();
+                regex.append(Pattern.quote(literal.substring(i, i + 1)));
+            } else if (wildCard != null && !wildCard.isEmpty() && literal.startsWith(wildCard, i)) {
+                regex.append(".*");
+                i += wildCard.length() - 1;
+            } else if (singleChar != null && !singleChar.isEmpty() && literal.startsWith(singleChar, i)) {
+                regex.append('.');
+                i += singleChar.length() - 1;
+            } else {
+                regex.append(Pattern.quote(literal.substring(i, i + 1)));
+            }
+        }
+        int flags = Pattern.DOTALL;
+        if (!like.isMatchingCase()) {
+            flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+        }
+        return Pattern.compile(regex.toString(), flags);
+    }
+}
@@ -0,0 +1,222 @@
+package org.geotools.data.dxf;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.geotools.data.DataUtilities;
+
+/**
+ * Input of a DXF file. The compression is detected once from the first bytes
+ * of the input: plain DXF (ASCII or binary), gzip or zip. Uncompressed local
+ * files are mapped into memory, zipped local files are opened with
+ * {@link ZipFile}. Gzip files in the BGZF format are inflated in parallel
+ * into memory, everything else is read as a stream.
+ */
+public class DXFInputSource implements Closeable {
+    public enum Compression {
+        NONE, GZIP, ZIP
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long MAP_SEGMENT_SIZE = 1L << 30;
+
+    private final Compression compression;
+    private final ByteBuffer[] buffers;
+    private final InputStream in;
+
+    private DXFInputSource(Compression compression, ByteBuffer[] buffers, InputStream in) {
+        this.compression = compression;
+        this.buffers = buffers;
+        this.in = in;
+    }
+
+    /**
+     * Opens the given stream, or the url if there is no stream.
+     */
+    public static DXFInputSource open(URL url, InputStream stream) throws IOException {
+        return open(url, stream, false);
+    }
+
+    /**
+     * @param snapshot read a local file from its binary snapshot, see
+     * {@link DXFSnapshot}, which is written if it is missing or out of date
+     */
+    public static DXFInputSource open(URL url, InputStream stream, boolean snapshot) throws IOException {
+        if (stream == null && "file".equals(url.getProtocol())) {
+            File file = DataUtilities.urlToFile(url);
+            if (file != null && file.isFile()) {
+                if (snapshot) {
+                    ByteBuffer[] data = DXFSnapshot.open(file);
+                    if (data != null) {
+                        return new DXFInputSource(Compression.NONE, data, null);
+                    }
+                }
+                return open(file);
+            }
+        }
+
+        // The size of a caller's stream is not known
+        long size = -1;
+        if (stream == null) {
+            URLConnection connection = url.openConnection();
+            size = connection.getContentLengthLong();
+            stream = connection.getInputStream();
+        }
+        InputStream in = new BufferedInputStream(stream, BUFFER_SIZE);
+        byte[] head = new byte[16];
+        in.mark(head.length);
+        int length = in.readNBytes(head, 0, head.length);
+        in.reset();
+
+        Compression compression = detect(head, length);
+        switch (compression) {
+            case GZIP:
+                // Only input of a known, bounded size is read into memory to
+                // be inflated in parallel, other input is inflated while read
+                if (DXFParallelInflater.isBGZF(head, length) && size >= 0 && size <= Integer.MAX_VALUE) {
+                    ByteBuffer data = ByteBuffer.wrap(in.readNBytes((int) size));
+                    in.close();
+                    int[] members = DXFParallelInflater.findMembers(data);
+                    if (members != null) {
+                        return new DXFInputSource(compression, new ByteBuffer[]{DXFParallelInflater.inflate(data, members)}, null);
+                    }
+                    // Not BGZF after all, read the url again
+                    in = new BufferedInputStream(url.openStream(), BUFFER_SIZE);
+                }
+                return new DXFInputSource(compression, null, new GZIPInputStream(in, BUFFER_SIZE));
+            case ZIP:
+                ZipInputStream zip = new ZipInputStream(in);
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (isDXFEntry(entry)) {
+                        return new DXFInputSource(compression, null, zip);
+                    }
+                }
+                zip.close();
+                throw new IOException("No DXF file found in zip file");
+            default:
+                return new DXFInputSource(compression, null, in);
+        }
+    }
+
+    private static DXFInputSource open(File file) throws IOException {
+        Compression compression;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(4);
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+            }
+            compression = detect(head.array(), head.position());
+            if (compression == Compression.NONE) {
+                return new DXFInputSource(compression, map(channel), null);
+            }
+            if (compression == Compression.GZIP && channel.size() <= Integer.MAX_VALUE) {
+                ByteBuffer data = map(channel)[0];
+                int[] members = DXFParallelInflater.findMembers(data);
+                if (members != null) {
+                    return new DXFInputSource(compression, new ByteBuffer[]{DXFParallelInflater.inflate(data, members)}, null);
+                }
+            }
+        }
+
+        if (compression == Compression.GZIP) {
+            return new DXFInputSource(compression, null,
+                    new GZIPInputStream(new FileInputStream(file), BUFFER_SIZE));
+        }
+
+        final ZipFile zipFile = new ZipFile(file);
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (isDXFEntry(entry)) {
+                // The stream of an entry does not close the zip file
+                InputStream in = new FilterInputStream(zipFile.getInputStream(entry)) {
+                    @Override
+                    public void close() throws IOException {
+                        try {
+                            super.close();
+                        } finally {
+                            zipFile.close();
+                        }
+                    }
+                };
+                return new DXFInputSource(compression, null, in);
+            }
+        }
+        zipFile.close();
+        throw new IOException("No DXF file found in " + file);
+    }
+
+    /**
+     * Maps the file into memory, files over 2 GB in segments.
+     */
+    static ByteBuffer[] map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long segmentSize = size <= Integer.MAX_VALUE ? Math.max(1, size) : MAP_SEGMENT_SIZE;
+        int count = (int) Math.max(1, (size + segmentSize - 1) / segmentSize);
+        ByteBuffer[] segments = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long offset = i * segmentSize;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, size - offset));
+        }
+        return segments;
+    }
+
+    static Compression detect(byte[] head, int length) {
+        if (length >= 2 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b) {
+            return Compression.GZIP;
+        }
+        if (length >= 4 && head[0] == 'P' && head[1] == 'K'
+                && ((head[2] == 3 && head[3] == 4) || (head[2] == 5 && head[3] == 6))) {
+            return Compression.ZIP;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * The first file in a zip file is read.
+     */
+    private static boolean isDXFEntry(ZipEntry entry) {
+        return !entry.isDirectory();
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Returns the uncompressed data, mapped or in memory, or null if the
+     * input is a stream.
+     */
+    public ByteBuffer[] getBuffers() {
+        return buffers;
+    }
+
+    /**
+     * Returns the uncompressed stream, or null if the input is mapped.
+     */
+    public InputStream getInputStream() {
+        return in;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package org.geotools.data.dxf;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates gzip files made of independent members in parallel. The members
+ * can only be located without inflating them when every member records its
+ * own size, as BGZF (blocked gzip, written by bgzip) does in the BC extra
+ * subfield. Other gzip files have to be inflated sequentially.
+ */
+final class DXFParallelInflater {
+    private static final int HEADER_SIZE = 12;
+    private static final int TRAILER_SIZE = 8;
+    private static final int FEXTRA = 4;
+    private static final int TASK_SIZE = 4 * 1024 * 1024;
+
+    private DXFParallelInflater() {
+    }
+
+    /**
+     * Checks whether a gzip file starts with a BGZF member header.
+     */
+    static boolean isBGZF(byte[] head, int length) {
+        return length >= 16 && (head[0] & 0xff) == 0x1f && (head[1] & 0xff) == 0x8b && head[2] == 8
+                && head[3] == FEXTRA && head[12] == 'B' && head[13] == 'C';
+    }
+
+    /**
+     * Locates the members of a BGZF file.
+     *
+     * @return the buffer indexes of the member boundaries, starting with the
+     * start of the first member and ending with the end of the data, or null
+     * if the data is not BGZF or is too large to inflate into one array
+     */
+    static int[] findMembers(ByteBuffer data) {
+        ByteBuffer le = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int[] bounds = new int[16];
+        int count = 0;
+        long uncompressed = 0;
+        int position = data.position();
+        while (position < data.limit()) {
+            if (position + HEADER_SIZE + TRAILER_SIZE > data.limit()
+                    || (le.get(position) & 0xff) != 0x1f || (le.get(position + 1) & 0xff) != 0x8b
+                    || le.get(position + 2) != 8 || le.get(position + 3) != FEXTRA) {
+                return null;
+            }
+            int extraLength = le.getShort(position + 10) & 0xffff;
+            int memberSize = -1;
+            int field = position + HEADER_SIZE;
+            int extraEnd = field + extraLength;
+            if (extraEnd > data.limit()) {
+                return null;
+            }
+            while (field + 4 <= extraEnd) {
+                int fieldLength = le.getShort(field + 2) & 0xffff;
+                if (le.get(field) == 'B' && le.get(field + 1) == 'C' && fieldLength == 2) {
+                    memberSize = (le.getShort(field + 4) & 0xffff) + 1;
+                }
+                field += 4 + fieldLength;
+            }
+            if (memberSize < extraEnd - position + TRAILER_SIZE || position + memberSize > data.limit()) {
+                return null;
+            }
+            if (count == bounds.length) {
+                bounds = Arrays.copyOf(bounds, 2 * count);
+            }
+            bounds[count++] = position;
+            uncompressed += le.getInt(position + memberSize - 4) & 0xffffffffL;
+            position += memberSize;
+        }
+        if (count == 0 || uncompressed > Integer.MAX_VALUE - 8) {
+            return null;
+        }
+        int[] members = Arrays.copyOf(bounds, count + 1);
+        members[count] = position;
+        return members;
+    }
+
+    /**
+     * Inflates the members into one array. Consecutive members are grouped
+     * into tasks of a few MB, which run on the common pool.
+     */
+    static ByteBuffer inflate(final ByteBuffer data, final int[] members) throws IOException {
+        ByteBuffer le = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        final int[] offsets = new int[members.length];
+        for (int i = 0; i < members.length - 1; i++) {
+            offsets[i + 1] = offsets[i] + le.getInt(members[i + 1] - 4);
+        }
+        final byte[] out = new byte[offsets[members.length - 1]];
+
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        int first = 0;
+        for (int i = 1; i < members.length; i++) {
+            if (i == members.length - 1 || members[i] - members[first] >= TASK_SIZE) {
+                final int from = first;
+                final int to = i;
+                tasks.add(new Callable<Void>() {
+                    public Void call() throws IOException {
+                        inflate(data, members, offsets, out, from, to);
+                        return null;
+                    }
+                });
+                first = i;
+            }
+        }
+
+        List<Future<Void>> results = new ArrayList<Future<Void>>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i < tasks.size() - 1) {
+                results.add(ForkJoinPool.commonPool().submit(tasks.get(i)));
+            } else {
+                FutureTask<Void> last = new FutureTask<Void>(tasks.get(i));
+                last.run();
+                results.add(last);
+            }
+        }
+        for (Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while inflating");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+        return ByteBuffer.wrap(out);
+    }
+
+    /**
+     * Inflates the members from (inclusive) to to (exclusive) and checks
+     * their size and checksum.
+     */
+    private static void inflate(ByteBuffer data, int[] members, int[] offsets, byte[] out, int from, int to) throws IOException {
+        ByteBuffer le = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        Inflater inflater = new Inflater(true);
+        CRC32 crc = new CRC32();
+        byte[] empty = new byte[1];
+        try {
+            for (int m = from; m < to; m++) {
+                int start = members[m] + HEADER_SIZE + (le.getShort(members[m] + 10) & 0xffff);
+                int end = members[m + 1] - TRAILER_SIZE;
+                ByteBuffer input = data.duplicate();
+                input.limit(end).position(start);
+
+                inflater.reset();
+                inflater.setInput(input);
+                int offset = offsets[m];
+                int size = offsets[m + 1] - offset;
+                int done = 0;
+                while (!inflater.finished()) {
+                    int n = done < size
+                            ? inflater.inflate(out, offset + done, size - done)
+                            : inflater.inflate(empty, 0, 1);
+                    if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new ZipException("Corrupt gzip member at " + members[m]);
+                    }
+                    done += n;
+                    if (done > size) {
+                        throw new ZipException("Size mismatch in gzip member at " + members[m]);
+                    }
+                }
+                crc.reset();
+                crc.update(out, offset, size);
+                if (done != size || (int) crc.getValue() != le.getInt(end)) {
+                    throw new ZipException("Corrupt gzip member at " + members[m]);
+                }
+            }
+        } catch (DataFormatException ex) {
+            throw new ZipException(ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.geotools.data.dxf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Stream that reads its source on a separate thread. The reader thread fills
+ * a fixed ring of buffers ahead of the consumer, so inflating a compressed
+ * file and parsing it run at the same time.
+ */
+public class DXFPipelineInputStream extends InputStream {
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+    public static final int DEFAULT_BUFFER_COUNT = 8;
+
+    private static final Chunk END = new Chunk(null, 0, null);
+
+    private final InputStream source;
+    private final BlockingQueue<byte[]> free;
+    private final BlockingQueue<Chunk> filled;
+    private final Thread reader;
+    private Chunk current = null;
+    private int position = 0;
+    private volatile boolean closed = false;
+
+    private static final class Chunk {
+        final byte[] buffer;
+        final int length;
+        final IOException error;
+
+        Chunk(byte[] buffer, int length, IOException error) {
+            this.buffer = buffer;
+            this.length = length;
+            this.error = error;
+        }
+    }
+
+    public DXFPipelineInputStream(InputStream source) {
+        this(source, DEFAULT_BUFFER_SIZE, DEFAULT_BUFFER_COUNT);
+    }
+
+    /**
+     * Starts a daemon thread that reads the source, one per stream. The
+     * thread ends at the end of the source or when the stream is closed, and
+     * closes the source; the source must not be used by anyone else until
+     * this stream is closed.
+     */
+    public DXFPipelineInputStream(InputStream source, int bufferSize, int bufferCount) {
+        this.source = source;
+        this.free = new ArrayBlockingQueue<byte[]>(bufferCount);
+        // one more for the END or error marker
+        this.filled = new ArrayBlockingQueue<Chunk>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(new byte[bufferSize]);
+        }
+        reader = new Thread(new Runnable() {
+            public void run() {
+                fill();
+            }
+        }, "DXF input reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    private void fill() {
+        try {
+            while (!closed) {
+                byte[] buffer = free.take();
+                int length = source.readNBytes(buffer, 0, buffer.length);
+                if (length > 0) {
+                    filled.put(new Chunk(buffer, length, null));
+                }
+                if (length < buffer.length) {
+                    filled.put(END);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            // closed
+        } catch (IOException ex) {
+            if (!closed) {
+                filled.offer(new Chunk(null, 0, ex));
+            }
+        } catch (RuntimeException ex) {
+            if (!closed) {
+                filled.offer(new Chunk(null, 0, new IOException(ex)));
+            }
+        } finally {
+            // Only this thread uses the source, so it can not be closed
+            // while it is being read
+            try {
+                source.close();
+            } catch (IOException ex) {
+                // nothing to report to
+            }
+        }
+    }
+
+    /**
+     * Makes the next filled buffer current.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean next() throws IOException {
+        if (current == END) {
+            return false;
+        }
+        if (current != null) {
+            free.add(current.buffer);
+        }
+        try {
+            current = filled.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        position = 0;
+        if (current.error != null) {
+            IOException error = current.error;
+            current = END;
+            throw error;
+        }
+        return current != END;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current.buffer, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        while (current == null || position == current.length) {
+            if (!next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops the reader thread and waits until it has closed the source, which
+     * takes at most the read of one buffer.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        reader.interrupt();
+        try {
+            reader.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing");
+        }
+    }
+}
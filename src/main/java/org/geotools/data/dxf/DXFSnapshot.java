@@ -0,0 +1,146 @@
+package org.geotools.data.dxf;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+import org.geotools.data.dxf.parser.DXFBinaryWriter;
+import org.geotools.data.dxf.parser.DXFParseException;
+import org.geotools.data.dxf.parser.DXFTokenizer;
+
+/**
+ * Binary snapshot of a DXF file, stored next to it as file.dxf.gtdx. The
+ * snapshot is the file converted to binary DXF, so it holds the layers,
+ * linetypes, blocks and entities with packed numbers and is read without
+ * inflating and without converting text to numbers. It starts with a 999
+ * comment recording the size and modification time of the file it was made
+ * from, and is only used while these match, so checking it does not read
+ * the file. The comment also records a checksum of the DXF data that was
+ * converted.
+ */
+final class DXFSnapshot {
+    static final String EXTENSION = ".gtdx";
+
+    private static final String MAGIC = "GTDX 1";
+    private static final String CRC_FORMAT = "%016x"; // fixed width, see write
+    private static final Logger LOGGER = Logger.getLogger(DXFSnapshot.class.getName());
+
+    private DXFSnapshot() {
+    }
+
+    static File getFile(File source) {
+        return new File(source.getPath() + EXTENSION);
+    }
+
+    /**
+     * Maps the snapshot of the file, writing it first if there is no valid
+     * snapshot.
+     *
+     * @return the mapped segments of the snapshot, or null if it could not
+     * be written
+     */
+    static ByteBuffer[] open(File source) throws IOException {
+        File file = getFile(source);
+        String comment = getComment(source);
+        if (file.isFile()) {
+            ByteBuffer[] data = map(file, comment);
+            if (data != null) {
+                return data;
+            }
+        }
+        try {
+            write(source, file, comment);
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not write snapshot " + file, ex);
+            return null;
+        } catch (DXFParseException ex) {
+            LOGGER.log(Level.FINE, "Could not write snapshot " + file, ex);
+            return null;
+        }
+        return map(file, comment);
+    }
+
+    /**
+     * Returns the start of the comment, up to the checksum.
+     */
+    private static String getComment(File source) {
+        return MAGIC + " " + source.length() + " " + source.lastModified() + " ";
+    }
+
+    /**
+     * Maps the snapshot if its comment starts as given.
+     */
+    private static ByteBuffer[] map(File file, String comment) throws IOException {
+        ByteBuffer[] data;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            data = DXFInputSource.map(channel);
+        }
+        // without the terminating 0 of the comment
+        byte[] expected = getHeader(comment);
+        int length = expected.length - 1;
+        if (data[0].remaining() < length) {
+            return null;
+        }
+        byte[] header = new byte[length];
+        data[0].duplicate().get(header);
+        return Arrays.equals(header, Arrays.copyOf(expected, length)) ? data : null;
+    }
+
+    /**
+     * Returns the bytes the snapshot starts with: the sentinel and the 999
+     * comment.
+     */
+    private static byte[] getHeader(String comment) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DXFBinaryWriter writer = new DXFBinaryWriter(out, StandardCharsets.US_ASCII);
+        writer.writeSentinel();
+        writer.writeComment(comment);
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    /**
+     * Converts the file to binary DXF. The snapshot is written to a
+     * temporary file first, so readers never see a partial snapshot. The
+     * checksum is computed while the data is copied and written over the
+     * placeholder in the comment afterwards.
+     */
+    private static void write(File source, File file, String comment) throws IOException, DXFParseException {
+        File tmp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+        try {
+            CRC32C crc = new CRC32C();
+            try (DXFInputSource input = DXFInputSource.open(source.toURI().toURL(), null);
+                    DXFTokenizer tokenizer = DXFTokenizer.create(new CheckedInputStream(input.getBuffers() != null
+                            ? DXFTokenizer.getInputStream(input.getBuffers())
+                            : input.getInputStream(), crc));
+                    OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp.toPath()), 64 * 1024)) {
+                DXFBinaryWriter writer = new DXFBinaryWriter(out);
+                out.write(getHeader(comment + String.format(CRC_FORMAT, 0L)));
+                writer.copy(tokenizer);
+                writer.flush();
+            }
+            try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.wrap(getHeader(comment + String.format(CRC_FORMAT, crc.getValue())));
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
+        }
+    }
+}
@@ -3,13 +3,12 @@ package org.geotools.data.dxf.entities;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
 import org.geotools.data.dxf.header.DXFLineType;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LinearRing;
 import java.io.EOFException;
 import java.io.IOException;
@@ -38,21 +37,20 @@ public class DXF3DFace extends DXFEntity {
         _c = c;
     }
 
-    public static DXF3DFace read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXF3DFace read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer layer = null;
         double x1 = 0, y1 = 0, z1 = 0, x2 = 0, y2 = 0, z2 = 0, x3 = 0, y3 = 0, z3 = 0, thickness = 0;
         DXFLineType lineType = null;
         int visibility = 0, color = -1;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -64,7 +62,7 @@ public class DXF3DFace extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
@@ -139,14 +137,6 @@ public class DXF3DFace extends DXFEntity {
         return rotateAndPlace(new Coordinate[]{_b.toCoordinate(), _b.toCoordinate(), _c.toCoordinate(), _b.toCoordinate()});
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         Coordinate[] ca = toCoordinateArray();
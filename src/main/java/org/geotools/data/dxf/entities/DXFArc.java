@@ -3,7 +3,7 @@ package org.geotools.data.dxf.entities;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
@@ -46,21 +46,20 @@ public class DXFArc extends DXFEntity {
         return _angle2;
     }
 
-    public static DXFArc read(DXFLineNumberReader br, DXFUnivers univers) throws NumberFormatException, IOException {
+    public static DXFArc read(DXFTokenizer br, DXFUnivers univers) throws NumberFormatException, IOException {
         double x = 0, y = 0, z = 0, r = 0, a1 = 0, a2 = 0, thickness = 0;
         int visibility = 0, c = 0;
         DXFLineType lineType = null;
         DXFLayer l = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -72,7 +71,7 @@ public class DXFArc extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
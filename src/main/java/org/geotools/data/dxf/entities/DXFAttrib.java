@@ -4,7 +4,7 @@ import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
@@ -29,7 +29,7 @@ public class DXFAttrib extends DXFText {
         super(x, y, z, value, rotation, thickness, height, align, align2, style, color, layer, angle, zoomFactor, visibility, lineType);
     }
 
-    public static DXFAttrib readAttrib(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFAttrib readAttrib(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer l = null;
         String value = "", style = "STANDARD";
         int visibility = 0, c = -1;
@@ -47,15 +47,14 @@ public class DXFAttrib extends DXFText {
 
         int sln = br.getLineNumber();
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -65,7 +64,7 @@ public class DXFAttrib extends DXFText {
 
             switch (gc) {
                 case TYPE:
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
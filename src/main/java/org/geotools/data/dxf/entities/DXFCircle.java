@@ -3,13 +3,12 @@ package org.geotools.data.dxf.entities;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
 import org.geotools.data.dxf.header.DXFLineType;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LinearRing;
 
 import java.io.EOFException;
@@ -38,7 +37,7 @@ public class DXFCircle extends DXFEntity {
         _radius = r;
     }
 
-    public static DXFCircle read(DXFLineNumberReader br, DXFUnivers univers) throws NumberFormatException, IOException {
+    public static DXFCircle read(DXFTokenizer br, DXFUnivers univers) throws NumberFormatException, IOException {
 
         int visibility = 0, c = 0;
         double x = 0, y = 0, z = 0, r = 0, thickness = 1;
@@ -46,15 +45,14 @@ public class DXFCircle extends DXFEntity {
         DXFLineType lineType = null;
 
         int sln = br.getLineNumber();
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -66,7 +64,7 @@ public class DXFCircle extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LINETYPE_NAME: //"6"
@@ -151,14 +149,6 @@ public class DXFCircle extends DXFEntity {
         return rotateAndPlace(lc.toArray(new Coordinate[lc.size()]));
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         Coordinate[] ca = toCoordinateArray();
@@ -7,7 +7,7 @@ import org.geotools.data.dxf.header.DXFBlockReference;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
@@ -38,7 +38,7 @@ public class DXFDimension extends DXFBlockReference {
         _point_WCS = new DXFPoint(x, y, z, c, null, visibility, 1);
     }
 
-    public static DXFDimension read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFDimension read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         String dimension = "", nomBlock = "";
         DXFDimension d = null;
         DXFLayer l = null;
@@ -47,15 +47,14 @@ public class DXFDimension extends DXFBlockReference {
         int visibility = 0, c = -1;
         DXFLineType lineType = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -67,7 +66,7 @@ public class DXFDimension extends DXFBlockReference {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
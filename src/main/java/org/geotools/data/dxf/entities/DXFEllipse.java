@@ -4,7 +4,7 @@ import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
@@ -50,21 +50,20 @@ public class DXFEllipse extends DXFEntity {
         _start = s;
     }
 
-    public static DXFEllipse read(DXFLineNumberReader br, DXFUnivers univers) throws NumberFormatException, IOException {
+    public static DXFEllipse read(DXFTokenizer br, DXFUnivers univers) throws NumberFormatException, IOException {
         int visibility = 0, c = 0;
         double x = 0, y = 0, z = 0, x1 = 0, y1 = 0, z1 = 0, r = 0, s = 0, e = 0;
         DXFLayer l = null;
         DXFLineType lineType = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException eofe) {
@@ -76,7 +75,7 @@ public class DXFEllipse extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
@@ -214,14 +213,6 @@ public class DXFEllipse extends DXFEntity {
         return rotateAndPlace(lc.toArray(new Coordinate[lc.size()]));
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         Coordinate[] ca = toCoordinateArray();
@@ -6,7 +6,7 @@ import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFColor;
 import org.geotools.data.dxf.parser.DXFConstants;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
@@ -25,6 +25,7 @@ import java.util.Map;
 public abstract class DXFEntity implements DXFConstants {
     protected GeometryType geometryType;
     protected Geometry geometry = null;
+    private volatile boolean geometryValid = false;
     /* dxf read */
     protected DXFUnivers univers;
     protected DXFLineType _lineType;
@@ -109,11 +110,33 @@ public abstract class DXFEntity implements DXFConstants {
     @Override
     abstract public DXFEntity clone();
 
+    /**
+     * Returns the geometry, built by {@link #updateGeometry()} on the first
+     * call and kept until {@link #invalidateGeometry()} is called. Entities
+     * are shared by readers on several threads, which all get the same
+     * geometry.
+     */
     public Geometry getGeometry() {
-        updateGeometry();
+        if (!geometryValid) {
+            synchronized (this) {
+                if (!geometryValid) {
+                    updateGeometry();
+                    geometryValid = true;
+                }
+            }
+        }
         return geometry;
     }
 
+    /**
+     * Drops the geometry, so the next {@link #getGeometry()} call builds it
+     * again. The setters call it; call it after changing the public fields
+     * of an entity, or the vertices of a polyline.
+     */
+    public synchronized void invalidateGeometry() {
+        geometryValid = false;
+    }
+
     public void updateGeometry() {
         geometry = getUnivers().getErrorGeometry();
     }
@@ -124,6 +147,7 @@ public abstract class DXFEntity implements DXFConstants {
 
     public void setType(GeometryType geometryType) {
         this.geometryType = geometryType;
+        invalidateGeometry();
     }
 
     public void setVisible(boolean visible) {
@@ -207,10 +231,12 @@ public abstract class DXFEntity implements DXFConstants {
 
     public void setUnivers(DXFUnivers univers) {
         this.univers = univers;
+        invalidateGeometry();
     }
 
-    public void setGeometry(Geometry geometry) {
+    public synchronized void setGeometry(Geometry geometry) {
         this.geometry = geometry;
+        geometryValid = true;
     }
     
     public Map<String, List<String>> getXData() {
@@ -236,15 +262,14 @@ public abstract class DXFEntity implements DXFConstants {
         return xdata;
     }
     
-    public static Map<String, List<String>> readXdata(String application, DXFLineNumberReader br, DXFUnivers univers, Map<String, List<String>> xdata) throws IOException {
-        DXFCodeValuePair cvp = null;
+    public static Map<String, List<String>> readXdata(String application, DXFTokenizer br, DXFUnivers univers, Map<String, List<String>> xdata) throws IOException {
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -285,7 +310,7 @@ public abstract class DXFEntity implements DXFConstants {
                     xdata = addXdata(application, Double.toString(cvp.getDoubleValue()), xdata);
                     break;
                 default:
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
             }
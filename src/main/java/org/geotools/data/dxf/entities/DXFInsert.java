@@ -8,7 +8,7 @@ import org.geotools.data.dxf.header.DXFBlockReference;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
 import java.io.IOException;
@@ -37,7 +37,7 @@ public class DXFInsert extends DXFBlockReference {
         _angle = angle;
     }
 
-    public static DXFInsert read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFInsert read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         String nomBlock = "";
         DXFInsert m = null;
         DXFLayer layer = null;
@@ -47,15 +47,14 @@ public class DXFInsert extends DXFBlockReference {
         DXFLineType lineType = null;
         double angle = 0.0;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -67,7 +66,7 @@ public class DXFInsert extends DXFBlockReference {
                 case TYPE:
                     String type = cvp.getStringValue();
 
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
@@ -144,6 +143,14 @@ public class DXFInsert extends DXFBlockReference {
     public List<DXFEntity> getChildren() {
         return univers.findBlock(_blockName).theEntities;
     }
+
+    /**
+     * Returns the inserted block, or null if the file has no block with its
+     * name.
+     */
+    public DXFBlock getBlock() {
+        return univers.findBlock(_blockName);
+    }
     
     public String toString(double x, double y, int visibility, int c, DXFLineType lineType) {
         StringBuilder s = new StringBuilder();
@@ -3,13 +3,12 @@ package org.geotools.data.dxf.entities;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
 import org.geotools.data.dxf.header.DXFLineType;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.List;
@@ -34,21 +33,20 @@ public class DXFLine extends DXFEntity {
         _b = b;
     }
 
-    public static DXFLine read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFLine read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer layer = null;
         double x1 = 0, y1 = 0, z1 = 0, x2 = 0, y2 = 0, z2 = 0, thickness = 0;
         DXFLineType lineType = null;
         int visibility = 0, color = -1;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -60,7 +58,7 @@ public class DXFLine extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
@@ -125,14 +123,6 @@ public class DXFLine extends DXFEntity {
         return rotateAndPlace(new Coordinate[]{_a.toCoordinate(), _b.toCoordinate()});
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         Coordinate[] ca = toCoordinateArray();
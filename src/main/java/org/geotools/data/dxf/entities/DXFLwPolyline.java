@@ -9,7 +9,7 @@ import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
@@ -58,22 +58,21 @@ public class DXFLwPolyline extends DXFEntity {
         setUnivers(orig.getUnivers());
     }
 
-    public static DXFLwPolyline read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFLwPolyline read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         String name = "";
         int visibility = 0, flag = 0, c = -1;
         DXFLineType lineType = null;
         ArrayList<DXFLwVertex> lv = new ArrayList<DXFLwVertex>();
         DXFLayer l = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -85,11 +84,11 @@ public class DXFLwPolyline extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue(); // SEQEND ???
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
-                    br.reset();
+                    br.unread();
                     readLwVertices(br, lv);
                     break;
                 case NAME: //"2"
@@ -129,19 +128,18 @@ public class DXFLwPolyline extends DXFEntity {
         return e;
     }
 
-    public static void readLwVertices(DXFLineNumberReader br, List<DXFLwVertex> theVertices) throws IOException {
+    public static void readLwVertices(DXFTokenizer br, List<DXFLwVertex> theVertices) throws IOException {
         double x = 0, y = 0, z = 0, b = 0;
         boolean xFound = false, yFound = false, zFound = false;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -166,7 +164,7 @@ public class DXFLwPolyline extends DXFEntity {
                     }
                     // TODO klopt dit???
                     if (gc == DXFGroupCode.TYPE) {
-                        br.reset();
+                        br.unread();
                         doLoop = false;
                         break;
                     }
@@ -197,20 +195,16 @@ public class DXFLwPolyline extends DXFEntity {
                         b = 0;
                     }
 
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
             }
 
         }
-    }
-
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
+        // vertex at the end of the input
+        if (xFound && yFound) {
+            theVertices.add(new DXFLwVertex(x, y, z, b));
         }
-        return super.getGeometry();
     }
 
     @Override
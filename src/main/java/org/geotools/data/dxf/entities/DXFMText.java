@@ -4,13 +4,12 @@ import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
 import org.geotools.data.dxf.header.DXFLineType;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -36,7 +35,7 @@ public class DXFMText extends DXFText {
         super(x, y, z, value, rotation, thickness, height, align, align2, style, color, l, angle, zoomFactor, visibility, lineType);
     }
 
-    public static DXFMText read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFMText read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer l = null;
         String value = "", style = "STANDARD";
         int visibility = 0, c = -1;
@@ -53,15 +52,14 @@ public class DXFMText extends DXFText {
 
         double x2 = Double.NaN, y2 = Double.NaN, z2 = Double.NaN;
         
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -73,7 +71,7 @@ public class DXFMText extends DXFText {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
@@ -230,13 +228,6 @@ public class DXFMText extends DXFText {
         return sb.toString();
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         geometry = getUnivers().getGeometryFactory().createPoint(toCoordinate());
@@ -4,12 +4,11 @@ import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -53,14 +52,17 @@ public class DXFPoint extends DXFEntity {
 
     public void setX(double x) {
         _point.x = x;
+        invalidateGeometry();
     }
 
     public void setY(double y) {
         _point.y = y;
+        invalidateGeometry();
     }
 
     public void setZ(double z) {
         _point.z = z;
+        invalidateGeometry();
     }
 
     public double X() {
@@ -75,20 +77,19 @@ public class DXFPoint extends DXFEntity {
         return _point.getZ();
     }
 
-    public static DXFPoint read(DXFLineNumberReader br, DXFUnivers univers) throws NumberFormatException, IOException {
+    public static DXFPoint read(DXFTokenizer br, DXFUnivers univers) throws NumberFormatException, IOException {
         DXFLayer layer = null;
         int visibility = 0, color = -1;
         double x = 0, y = 0, z = 0, thickness = 0;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -100,7 +101,7 @@ public class DXFPoint extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
@@ -139,14 +140,6 @@ public class DXFPoint extends DXFEntity {
         return e;
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-           updateGeometry();
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry(){
          geometry = getUnivers().getGeometryFactory().createPoint(toCoordinate());
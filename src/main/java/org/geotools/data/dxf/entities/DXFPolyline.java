@@ -5,7 +5,7 @@ import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.database.GeometryType;
@@ -49,22 +49,21 @@ public class DXFPolyline extends DXFEntity {
         _flag = flag;
     }
 
-    public static DXFPolyline read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFPolyline read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         String name = "";
         int visibility = 0, flag = 0, c = -1;
         DXFLineType lineType = null;
         ArrayList<DXFVertex> lv = new ArrayList<DXFVertex>();
         DXFLayer l = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error " + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -80,7 +79,7 @@ public class DXFPolyline extends DXFEntity {
                     } else if (DXFConstants.VERTEX.equals(type)) {
                         lv.add(DXFVertex.read(br, univers));
                     } else {
-                        br.reset();
+                        br.unread();
                         doLoop = false;
                     }
                     break;
@@ -140,14 +139,6 @@ public class DXFPolyline extends DXFEntity {
         return s.toString();
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         Coordinate[] ca = toCoordinateArray();
@@ -3,7 +3,7 @@ package org.geotools.data.dxf.entities;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
@@ -16,7 +16,6 @@ import org.geotools.database.GeometryType;
 import org.geotools.data.dxf.header.DXFLineType;
 
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LinearRing;
 import java.util.Map;
 
@@ -52,7 +51,7 @@ public class DXFSolid extends DXFEntity {
         }
     }
 
-    public static DXFEntity read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFEntity read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         double p1_x = 0, p2_x = 0, p3_x = 0, p4_x = 0,
                 p1_y = 0, p2_y = 0, p3_y = 0, p4_y = 0,
                 p1_z = 0, p2_z = 0, p3_z = 0, p4_z = 0;
@@ -61,15 +60,14 @@ public class DXFSolid extends DXFEntity {
         DXFLayer l = null;
         DXFLineType lineType = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -81,7 +79,7 @@ public class DXFSolid extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
@@ -174,15 +172,6 @@ public class DXFSolid extends DXFEntity {
         return rotateAndPlace(lc.toArray(new Coordinate[]{}));
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-            updateGeometry();
-        }
-
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         Coordinate[] ca = toCoordinateArray();
@@ -6,7 +6,7 @@ import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.header.DXFTables;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
@@ -30,22 +30,21 @@ public class DXFSpLine extends DXFPolyline {
         super(name, flag, c, l, v, visibility, lineType, thickness);
     }
 
-    public static DXFSpLine read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFSpLine read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer l = null;
         int flag = 0, visibility = 0, c = -1;
         String name = "";
         DXFLineType lineType = null;
         ArrayList<DXFVertex> lv = new ArrayList<DXFVertex>();
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -59,7 +58,7 @@ public class DXFSpLine extends DXFPolyline {
             switch (gc) {
                 case TYPE:
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
@@ -3,8 +3,7 @@ package org.geotools.data.dxf.entities;
 import org.geotools.database.GeometryType;
 import org.geotools.data.dxf.header.DXFLineType;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import java.awt.geom.Rectangle2D;
 import java.io.EOFException;
 import java.io.IOException;
@@ -57,7 +56,7 @@ public class DXFText extends DXFEntity {
         _zoomfactor = zoomFactor;
     }
 
-    public static DXFText read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFText read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer l = null;
         String value = "", style = "STANDARD";
         int visibility = 0, c = -1;
@@ -72,15 +71,14 @@ public class DXFText extends DXFEntity {
                 thickness = DXFTables.defaultThickness,
                 height = 0;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -92,7 +90,7 @@ public class DXFText extends DXFEntity {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case X_1: //"10"
@@ -231,13 +229,6 @@ public class DXFText extends DXFEntity {
         return sb.toString();
     }
 
-    @Override
-    public Geometry getGeometry() {
-        if (geometry == null) {
-        }
-        return super.getGeometry();
-    }
-
     @Override
     public void updateGeometry() {
         geometry = getUnivers().getGeometryFactory().createPoint(toCoordinate());
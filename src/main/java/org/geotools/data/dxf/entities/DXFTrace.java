@@ -1,7 +1,7 @@
 package org.geotools.data.dxf.entities;
 
 import org.geotools.data.dxf.header.DXFLayer;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
 import java.io.IOException;
@@ -26,7 +26,7 @@ public class DXFTrace extends DXFSolid {
         super(p1, p2, p3, p4, thickness, c, l, visibility, lineType);
     }
 
-    public static DXFEntity read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFEntity read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         int visibility = 0;
         DXFSolid s = (DXFSolid) DXFSolid.read(br, univers);
         if (!s.isVisible()) {
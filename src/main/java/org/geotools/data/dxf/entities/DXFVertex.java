@@ -5,7 +5,7 @@ import java.io.EOFException;
 import org.geotools.data.dxf.header.DXFLayer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
@@ -30,20 +30,19 @@ public class DXFVertex extends DXFPoint {
         _bulge = b;
     }
 
-    public static DXFVertex read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFVertex read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         DXFLayer l = null;
         int visibility = 0, c = -1;
         double x = 0, y = 0, z = 0, b = 0;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
         Map<String, List<String>> xdata = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -55,7 +54,7 @@ public class DXFVertex extends DXFPoint {
                 case TYPE:
                     String type = cvp.getStringValue();
                     // geldt voor alle waarden van type
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case LAYER_NAME: //"8"
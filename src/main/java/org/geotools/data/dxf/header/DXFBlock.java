@@ -9,12 +9,14 @@ import java.util.Iterator;
 import org.geotools.data.dxf.parser.DXFColor;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.entities.DXFEntity;
+import org.geotools.data.dxf.entities.DXFInsert;
 import org.geotools.data.dxf.entities.DXFPoint;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
 import org.geotools.data.dxf.parser.DXFGroupCode;
+import org.locationtech.jts.geom.Geometry;
 
 public class DXFBlock extends DXFEntity implements DXFConstants {
     public Vector<DXFEntity> theEntities = new Vector<DXFEntity>();
@@ -48,7 +50,7 @@ public class DXFBlock extends DXFEntity implements DXFConstants {
         theEntities = ent;
     }
 
-    public static DXFBlock read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFBlock read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         Vector<DXFEntity> sEnt = new Vector<DXFEntity>();
         String name = "";
         double x = 0, y = 0, z = 0;
@@ -56,14 +58,13 @@ public class DXFBlock extends DXFEntity implements DXFConstants {
         int flag = 0;
         DXFLayer l = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -79,15 +80,15 @@ public class DXFBlock extends DXFEntity implements DXFConstants {
                     } else if (type.equals(ENDSEC)) {
                         // hack voor als ENDBLK ontbreekt
                         doLoop = false;
-                        br.reset();
+                        br.unread();
                     } else if (type.equals(BLOCK)) {
                         doLoop = false;
-                        br.reset();
+                        br.unread();
                     //} else if (type.equals(INSERT)) {
                     //    DXFInsert.read(br, univers);
                     } else {
                         // check of dit entities zijn
-                        br.reset();
+                        br.unread();
                         sEnt.addAll(DXFEntities.readEntities(br, univers).theEntities);
                     }
                     break;
@@ -130,6 +131,21 @@ public class DXFBlock extends DXFEntity implements DXFConstants {
         return e;
     }
 
+    /**
+     * Returns the geometry of the entity at the index in block coordinates,
+     * or null if it has none or is an insert, whose block is inserted
+     * instead. This is the geometry the entity keeps until
+     * {@link DXFEntity#invalidateGeometry()}, shared by all inserts of the
+     * block, so it must not be changed; inserts transform a copy.
+     */
+    public Geometry getEntityGeometry(int i) {
+        DXFEntity entity = theEntities.elementAt(i);
+        if (entity instanceof DXFInsert) {
+            return null;
+        }
+        return entity.getGeometry();
+    }
+
     public String toString(double x, double y, int flag, String name, int numEntities, int c) {
         StringBuilder s = new StringBuilder();
         s.append("DXFBlock [");
@@ -14,7 +14,7 @@ import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFColor;
 import org.geotools.data.dxf.parser.DXFConstants;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
@@ -47,21 +47,20 @@ public class DXFBlockRecord extends DXFBlock {
      * */
     }
 
-    public static DXFBlockRecord read(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFBlockRecord read(DXFTokenizer br, DXFUnivers univers) throws IOException {
         Vector<DXFEntity> sEnt = new Vector<DXFEntity>();
         String name = "";
         double x = 0, y = 0, z = 0;
         int flag = 0;
         DXFLayer l = null;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -81,7 +80,7 @@ public class DXFBlockRecord extends DXFBlock {
                     } else if (DXFConstants.ENDSEC.equals(type)) {
                         // hack voor als ENDBLK ontbreekt
                         doLoop = false;
-                        br.reset();
+                        br.unread();
                     }
                     break;
                 case NAME:
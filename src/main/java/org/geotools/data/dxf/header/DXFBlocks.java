@@ -4,7 +4,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.util.Vector;
 
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
 import org.geotools.data.dxf.parser.DXFGroupCode;
@@ -25,18 +25,17 @@ public class DXFBlocks implements DXFConstants {
         theBlocks = blocks;
     }
 
-    public static DXFBlocks readBlocks(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFBlocks readBlocks(DXFTokenizer br, DXFUnivers univers) throws IOException {
 
         Vector<DXFBlock> sBlocks = new Vector<DXFBlock>();
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
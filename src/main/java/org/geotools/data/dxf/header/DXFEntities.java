@@ -2,7 +2,9 @@ package org.geotools.data.dxf.header;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.geotools.data.dxf.entities.DXF3DFace;
 import org.geotools.data.dxf.entities.DXFArc;
@@ -23,13 +25,37 @@ import org.geotools.data.dxf.entities.DXFTrace;
 import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
+import org.geotools.data.dxf.parser.DXFEntityBounds;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFUnivers;
 import org.geotools.data.dxf.entities.DXFAttrib;
 import org.geotools.data.dxf.entities.DXFLeader;
 
 public class DXFEntities implements DXFConstants {
+    private static final Map<String, DXFEntityReader> readers = new ConcurrentHashMap<String, DXFEntityReader>();
+    private static final Map<String, Class<? extends DXFEntity>> entityClasses = new ConcurrentHashMap<String, Class<? extends DXFEntity>>();
+
+    static {
+        register(ATTRIB, DXFAttrib.class, DXFAttrib::readAttrib);
+        register(FACE3D, DXF3DFace.class, DXF3DFace::read);
+        register(LEADER, DXFLeader.class, DXFLeader::read);
+        register(LINE, DXFLine.class, DXFLine::read);
+        register(ARC, DXFArc.class, DXFArc::read);
+        register(CIRCLE, DXFCircle.class, DXFCircle::read);
+        register(POLYLINE, DXFPolyline.class, DXFPolyline::read);
+        register(LWPOLYLINE, DXFLwPolyline.class, DXFLwPolyline::read);
+        register(POINT, DXFPoint.class, DXFPoint::read);
+        register(SOLID, DXFSolid.class, DXFSolid::read);
+        register(TEXT, DXFText.class, DXFText::read);
+        register(MTEXT, DXFMText.class, DXFMText::read);
+        register(INSERT, DXFInsert.class, DXFInsert::read);
+        register(DIMENSION, DXFDimension.class, DXFDimension::read);
+        register(TRACE, DXFTrace.class, DXFTrace::read);
+        register(ELLIPSE, DXFEllipse.class, DXFEllipse::read);
+        register(SPLINE, DXFSpLine.class, DXFSpLine::read);
+    }
+
     public Vector<DXFEntity> theEntities = new Vector<DXFEntity>();
 
     public DXFEntities() {
@@ -42,17 +68,110 @@ public class DXFEntities implements DXFConstants {
         this.theEntities = sEntities;
     }
 
-    public static DXFEntities readEntities(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    /**
+     * Registers the reader of an entity type, replacing the reader
+     * registered before.
+     */
+    public static void register(String type, DXFEntityReader reader) {
+        entityClasses.remove(type);
+        readers.put(type, reader);
+    }
+
+    /**
+     * Registers the reader of an entity type, which reads entities of the
+     * given class. The class allows to skip entities by class before they
+     * are read, see {@link DXFEntityFilter}.
+     */
+    public static void register(String type, Class<? extends DXFEntity> entityClass, DXFEntityReader reader) {
+        entityClasses.put(type, entityClass);
+        readers.put(type, reader);
+    }
+
+    public static void unregister(String type) {
+        readers.remove(type);
+        entityClasses.remove(type);
+    }
+
+    /**
+     * Returns the class of the entities of a type, or null if it is not
+     * known.
+     */
+    public static Class<? extends DXFEntity> getEntityClass(String type) {
+        return entityClasses.get(type);
+    }
+
+    /**
+     * Returns the reader of an entity type, or null if entities of the type
+     * are skipped.
+     */
+    public static DXFEntityReader getReader(String type) {
+        return readers.get(type);
+    }
+
+    public static DXFEntities readEntities(DXFTokenizer br, DXFUnivers univers) throws IOException {
+        return readEntities(br, univers, null);
+    }
+
+    /**
+     * Reads the entities accepted by the filter, the other entities are
+     * skipped without decoding them.
+     */
+    public static DXFEntities readEntities(DXFTokenizer br, DXFUnivers univers, DXFEntityFilter filter) throws IOException {
         Vector<DXFEntity> sEnt = new Vector<DXFEntity>();
+        DXFEntity dxfe;
+        while ((dxfe = readEntity(br, univers, filter)) != null) {
+            sEnt.add(dxfe);
+        }
+        DXFEntities e = new DXFEntities(sEnt);
+        return e;
+    }
+
+    /**
+     * Reads the next entity of an ENTITIES section or a block. Entities of
+     * unsupported types are skipped.
+     *
+     * @return the entity, or null at the end of the section or block
+     */
+    public static DXFEntity readEntity(DXFTokenizer br, DXFUnivers univers) throws IOException {
+        return readEntity(br, univers, null);
+    }
+
+    private static boolean accept(DXFEntityFilter filter, String type, DXFTokenizer br, DXFUnivers univers) throws IOException {
+        // The vertices of a POLYLINE follow as separate entities, so its
+        // envelope is not known before it is read
+        if (filter.needsBounds() && DXFEntityBounds.isBounded(type) && !type.equals(POLYLINE)) {
+            DXFEntityBounds bounds = new DXFEntityBounds();
+            bounds.reset(type);
+            String layer = getLayerName(br.peekLayer(bounds), univers);
+            return filter.accept(type, layer, bounds.getEnvelope());
+        }
+        return filter.accept(type, filter.needsLayer() ? getLayerName(br.peekLayer(), univers) : null);
+    }
 
-        DXFCodeValuePair cvp = null;
+    /**
+     * Returns the name an entity on a layer has in its "layer" attribute.
+     * Layer names are compared without case, so this is the spelling of the
+     * layer table rather than the spelling of the entity. Layers that are not
+     * in the table are not added, see {@link DXFUnivers#getLayerName(String)}.
+     *
+     * @param layer the layer name of the entity, or null
+     */
+    public static String getLayerName(String layer, DXFUnivers univers) {
+        return univers.getLayerName(layer);
+    }
+
+    /**
+     * Reads the next entity accepted by the filter, see
+     * {@link #readEntity(DXFTokenizer, DXFUnivers)}.
+     */
+    public static DXFEntity readEntity(DXFTokenizer br, DXFUnivers univers, DXFEntityFilter filter) throws IOException {
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -67,43 +186,32 @@ public class DXFEntities implements DXFConstants {
                     if (type.equals(ENDSEC) || type.equals(ENDBLK)) {
                         doLoop = false;
                         break;
-                    } else if (type.equals(ATTRIB)) {
-                        dxfe = DXFAttrib.readAttrib(br, univers);
-                    } else if (type.equals(FACE3D)) {
-                        dxfe = DXF3DFace.read(br, univers);
-                    } else if (type.equals(LEADER)) {
-                        dxfe = DXFLeader.read(br, univers);
-                    } else if (type.equals(LINE)) {
-                        dxfe = DXFLine.read(br, univers);
-                    } else if (type.equals(ARC)) {
-                        dxfe = DXFArc.read(br, univers);
-                    } else if (type.equals(CIRCLE)) {
-                        dxfe = DXFCircle.read(br, univers);
-                    } else if (type.equals(POLYLINE)) {
-                             dxfe = DXFPolyline.read(br, univers);
-                    } else if (type.equals(LWPOLYLINE)) {
-                               dxfe = DXFLwPolyline.read(br, univers);
-                    } else if (type.equals(POINT)) {
-                        dxfe = DXFPoint.read(br, univers);
-                    } else if (type.equals(SOLID)) {
-                        dxfe = DXFSolid.read(br, univers);
-                    } else if (type.equals(TEXT)) {
-                        dxfe = DXFText.read(br, univers);
-                    } else if (type.equals(MTEXT)) {
-                        dxfe = DXFMText.read(br, univers);
-                    } else if (type.equals(INSERT)) {
-                        dxfe = DXFInsert.read(br, univers);
-                    } else if (type.equals(DIMENSION)) {
-                        dxfe = DXFDimension.read(br, univers);
-                    } else if (type.equals(TRACE)) {
-                        dxfe = DXFTrace.read(br, univers);
-                    } else if (type.equals(ELLIPSE)) {
-                        dxfe = DXFEllipse.read(br, univers);
-                    } else if (type.equals(SPLINE)) {
-                        dxfe = DXFSpLine.read(br, univers);
+                    }
+                    DXFEntityReader reader = readers.get(type);
+                    if (reader != null && filter != null && !accept(filter, type, br, univers)) {
+                        reader = null;
+                    }
+                    if (reader == null) {
+                        // Skip the pairs of an unsupported or filtered
+                        // entity without decoding their values
+                        try {
+                            cvp.skipToType();
+                        } catch (DXFParseException ex) {
+                            throw new IOException("DXF parse error" + ex.getLocalizedMessage());
+                        } catch (EOFException e) {
+                            doLoop = false;
+                            break;
+                        }
+                        br.unread();
+                        break;
+                    }
+                    try {
+                        dxfe = reader.read(br, univers);
+                    } catch (NumberFormatException ex) {
+                        throw new IOException("DXF parse error" + ex.getLocalizedMessage());
                     }
                     if (dxfe != null) {
-                        sEnt.add(dxfe);
+                        return dxfe;
                     }
                     break;
                 default:
@@ -111,8 +219,7 @@ public class DXFEntities implements DXFConstants {
             }
 
         }
-        DXFEntities e = new DXFEntities(sEnt);
-        return e;
+        return null;
     }
 
     public String toString(int numEntities) {
@@ -0,0 +1,96 @@
+package org.geotools.data.dxf.header;
+
+import java.util.function.Predicate;
+
+import org.geotools.data.dxf.entities.DXFEntity;
+import org.geotools.data.dxf.entities.DXFInsert;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Selects the entities to read by their layer name and the simple name of
+ * their class, as in the "layer" and "class" feature attributes, and by a
+ * window in DXF coordinates, before they are decoded. It may accept more
+ * entities than needed, never fewer: inserts are always accepted, as the
+ * features of their blocks have their own layers, classes and envelopes.
+ */
+public final class DXFEntityFilter {
+    private final Predicate<String> layers;
+    private final Predicate<String> classes;
+    private final Envelope window;
+
+    /**
+     * @param layers the accepted layer names, or null for all layers
+     * @param classes the accepted class names, or null for all classes
+     */
+    public DXFEntityFilter(Predicate<String> layers, Predicate<String> classes) {
+        this(layers, classes, null);
+    }
+
+    /**
+     * @param window the envelope in DXF coordinates the entities have to
+     * intersect, or null for all entities
+     */
+    public DXFEntityFilter(Predicate<String> layers, Predicate<String> classes, Envelope window) {
+        this.layers = layers;
+        this.classes = classes;
+        this.window = window;
+    }
+
+    /**
+     * Returns a filter with the same layers and classes and another window.
+     */
+    public DXFEntityFilter withWindow(Envelope window) {
+        return new DXFEntityFilter(layers, classes, window);
+    }
+
+    /**
+     * Checks whether an entity can match the filter.
+     *
+     * @param type the entity type of the 0 pair
+     * @param layer the layer name as in the layer table, see
+     * {@link DXFEntities#getLayerName}, or null if it is not known
+     */
+    public boolean accept(String type, String layer) {
+        return accept(type, layer, null);
+    }
+
+    /**
+     * Checks whether an entity can match the filter.
+     *
+     * @param type the entity type of the 0 pair
+     * @param layer the layer name as in the layer table, or null if it is
+     * not known
+     * @param bounds the envelope of the entity, or null if it is not known
+     */
+    public boolean accept(String type, String layer, Envelope bounds) {
+        Class<? extends DXFEntity> entityClass = DXFEntities.getEntityClass(type);
+        if (entityClass != null && DXFInsert.class.isAssignableFrom(entityClass)) {
+            return true;
+        }
+        if (classes != null && entityClass != null && !classes.test(entityClass.getSimpleName())) {
+            return false;
+        }
+        if (window != null && bounds != null && !window.intersects(bounds)) {
+            return false;
+        }
+        return layers == null || layer == null || layers.test(layer);
+    }
+
+    /**
+     * Checks whether the layer of an entity has to be known to decide.
+     */
+    public boolean needsLayer() {
+        return layers != null;
+    }
+
+    /**
+     * Checks whether the envelope of an entity has to be known to decide.
+     */
+    public boolean needsBounds() {
+        return window != null;
+    }
+
+    public Envelope getWindow() {
+        return window;
+    }
+}
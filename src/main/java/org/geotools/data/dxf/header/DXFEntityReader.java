@@ -0,0 +1,22 @@
+package org.geotools.data.dxf.header;
+
+import java.io.IOException;
+
+import org.geotools.data.dxf.entities.DXFEntity;
+import org.geotools.data.dxf.parser.DXFTokenizer;
+import org.geotools.data.dxf.parser.DXFUnivers;
+
+/**
+ * Reads the entities of one type, see
+ * {@link DXFEntities#register(String, DXFEntityReader)}. The reader is
+ * called after the 0 pair with the entity type has been read and reads the
+ * pairs of the entity; the 0 pair of the next entity is pushed back with
+ * {@link DXFTokenizer#unread()}. Readers are called by several threads at
+ * once.
+ */
+public interface DXFEntityReader {
+    /**
+     * @return the entity, or null to skip it
+     */
+    DXFEntity read(DXFTokenizer br, DXFUnivers univers) throws IOException;
+}
@@ -7,7 +7,7 @@ import java.io.IOException;
 
 import org.geotools.data.dxf.entities.Point;
 import org.geotools.data.dxf.parser.DXFParseException;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.entities.DXFPoint;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
@@ -46,7 +46,7 @@ public class DXFHeader implements DXFConstants {
         _SRID = srid;
     }
 
-    public static DXFHeader read(DXFLineNumberReader br) throws IOException {
+    public static DXFHeader read(DXFTokenizer br) throws IOException {
         Point limmin = null;
         Point limmax = null;
         Point extmin = null;
@@ -59,14 +59,13 @@ public class DXFHeader implements DXFConstants {
         int srid = 28992; // default rd new
 
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -91,9 +90,8 @@ public class DXFHeader implements DXFConstants {
 
                     boolean doLoop2 = true;
                     while (doLoop2) {
-                        cvp = new DXFCodeValuePair();
                         try {
-                            gc = cvp.read(br);
+                            gc = cvp.read();
                         } catch (DXFParseException ex) {
                             throw new IOException("DXF parse error" + ex.getLocalizedMessage());
                         } catch (EOFException e) {
@@ -113,7 +111,7 @@ public class DXFHeader implements DXFConstants {
                                 break;
                             case VARIABLE_NAME:
                                 doLoop2 = false;
-                                br.reset();
+                                br.unread();
                                 break;
                             case X_1:
                                 x = cvp.getDoubleValue();
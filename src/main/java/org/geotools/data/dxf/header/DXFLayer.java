@@ -6,7 +6,7 @@ import java.util.ArrayList;
 
 
 import org.geotools.data.dxf.parser.DXFParseException;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.entities.DXFEntity;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
@@ -38,18 +38,17 @@ public class DXFLayer extends DXFEntity implements DXFConstants {
         return this._name;
     }
     
-    public static DXFLayer read(DXFLineNumberReader br) throws NumberFormatException, IOException {
+    public static DXFLayer read(DXFTokenizer br) throws NumberFormatException, IOException {
         String name = "";
         int f = 0, color = 0;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -60,7 +59,7 @@ public class DXFLayer extends DXFEntity implements DXFConstants {
             switch (gc) {
                 case TYPE:
                 case VARIABLE_NAME:
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case NAME:
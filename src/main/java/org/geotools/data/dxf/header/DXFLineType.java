@@ -7,7 +7,7 @@ import java.util.Vector;
 
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFParseException;
 
 public class DXFLineType {
@@ -32,19 +32,18 @@ public class DXFLineType {
         }
     }
 
-    public static DXFLineType read(DXFLineNumberReader br) throws IOException {
+    public static DXFLineType read(DXFTokenizer br) throws IOException {
         String value = "", name = "";
         Vector<Float> spacing = new Vector<Float>();
         float count = 0, length = 0;
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -55,7 +54,7 @@ public class DXFLineType {
             switch (gc) {
                 case TYPE:
                 case VARIABLE_NAME:
-                    br.reset();
+                    br.unread();
                     doLoop = false;
                     break;
                 case NAME:
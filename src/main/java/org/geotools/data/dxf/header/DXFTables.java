@@ -8,7 +8,7 @@ import org.geotools.data.dxf.parser.DXFParseException;
 import org.geotools.data.dxf.parser.DXFCodeValuePair;
 import org.geotools.data.dxf.parser.DXFConstants;
 import org.geotools.data.dxf.parser.DXFGroupCode;
-import org.geotools.data.dxf.parser.DXFLineNumberReader;
+import org.geotools.data.dxf.parser.DXFTokenizer;
 import org.geotools.data.dxf.parser.DXFUnivers;
 
 public class DXFTables implements DXFConstants {
@@ -25,18 +25,17 @@ public class DXFTables implements DXFConstants {
         this.theLineTypes = sLineTypes;
     }
 
-    public static DXFTables readTables(DXFLineNumberReader br, DXFUnivers univers) throws IOException {
+    public static DXFTables readTables(DXFTokenizer br, DXFUnivers univers) throws IOException {
         Vector<DXFLayer> sLayers = new Vector<DXFLayer>();
         Vector<DXFLineType> sLineTypes = new Vector<DXFLineType>();
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -62,16 +61,15 @@ public class DXFTables implements DXFConstants {
         return e;
     }
 
-    public static void readTable(DXFLineNumberReader br, Vector<DXFLayer> sLayers, Vector<DXFLineType> sLineTypes, DXFUnivers univers) throws IOException {
+    public static void readTable(DXFTokenizer br, Vector<DXFLayer> sLayers, Vector<DXFLineType> sLineTypes, DXFUnivers univers) throws IOException {
 
-        DXFCodeValuePair cvp = null;
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -85,7 +83,7 @@ public class DXFTables implements DXFConstants {
 
                     if (type.equals(ENDSEC)) {
                         // hack om einde zonder ENDTAB te werken
-                        br.reset();
+                        br.unread();
                         doLoop = false;
                         break;
                     } else if (type.equals(ENDTAB)) {
@@ -0,0 +1,319 @@
+package org.geotools.data.dxf.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tokenizer for binary DXF files. The file starts with a sentinel, followed
+ * by the group code / value pairs in binary form:
+ *
+ * - group codes are 2 byte little endian integers (R13 and later) or a
+ *   single byte, with 255 introducing a 2 byte code (R12 and earlier),
+ * - strings and handles are terminated by a zero byte,
+ * - numbers are little endian integers of 1, 2, 4 or 8 bytes and 8 byte
+ *   IEEE doubles,
+ * - binary chunks have a length byte followed by the data.
+ *
+ * The width of a value follows from its group code as given in the DXF
+ * reference, so also pairs with unsupported group codes can be skipped. The
+ * values are converted to the type the caller asks for, binary chunks are
+ * returned hex encoded as in ASCII DXF.
+ */
+public class DXFBinaryTokenizer extends DXFTokenizer {
+    static final byte[] SENTINEL = "AutoCAD Binary DXF\r\n\u001a\0".getBytes(StandardCharsets.US_ASCII);
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /* null until the first group code has been read */
+    private Boolean wideGroupCodes = null;
+    private DXFValueType valueType;
+
+    /**
+     * Creates a tokenizer for the input following the sentinel.
+     */
+    public DXFBinaryTokenizer(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * Creates a tokenizer for the remaining bytes of the buffer, which
+     * follow the sentinel.
+     */
+    public DXFBinaryTokenizer(ByteBuffer data) {
+        super(data);
+    }
+
+    @Override
+    public int readGroupCode() throws IOException, DXFParseException {
+        if (wideGroupCodes == null) {
+            // Normally the file starts with 0/SECTION, which is 0 'S' with
+            // 1 byte group codes. A leading 999 comment starts with the
+            // escape byte 255 there.
+            int i = require(2);
+            wideGroupCodes = !((buffer[i] == 0 && buffer[i + 1] != 0) || buffer[i] == (byte) 255);
+            position = i;
+        }
+        int code;
+        if (wideGroupCodes) {
+            code = readInt16();
+        } else {
+            code = buffer[require(1)] & 0xff;
+            if (code == 255) {
+                code = readInt16();
+            }
+        }
+        lineNumber++;
+        valueType = getValueType(code);
+        return code;
+    }
+
+    @Override
+    public String readString() throws IOException {
+        lineNumber++;
+        switch (valueType) {
+            case SHORT:
+                return Short.toString(readInt16());
+            case INTEGER:
+                return Integer.toString(readInt32());
+            case LONG:
+                return Long.toString(readInt64());
+            case BOOLEAN:
+                return Integer.toString(buffer[require(1)]);
+            case DOUBLE:
+                return Double.toString(Double.longBitsToDouble(readInt64()));
+            case BINHEX:
+                return readChunk();
+            default:
+                int end = indexOf((byte) 0);
+                String value = decode(position, end);
+                position = end + 1;
+                return value;
+        }
+    }
+
+    @Override
+    public String peekLayer(DXFEntityBounds bounds) throws IOException {
+        int offset = 0;
+        String layer = null;
+        while (true) {
+            int code;
+            if (!available(offset)) {
+                return layer;
+            }
+            if (wideGroupCodes || buffer[position + offset] == (byte) 255) {
+                if (!wideGroupCodes) {
+                    offset++;
+                }
+                if (!available(offset + 1)) {
+                    return layer;
+                }
+                code = (short) ((buffer[position + offset] & 0xff) | (buffer[position + offset + 1] << 8));
+                offset += 2;
+            } else {
+                code = buffer[position + offset] & 0xff;
+                offset++;
+            }
+            if (code == 0) {
+                return layer;
+            }
+            switch (getValueType(code)) {
+                case SHORT:
+                    offset += 2;
+                    break;
+                case INTEGER:
+                    offset += 4;
+                    break;
+                case LONG:
+                    offset += 8;
+                    break;
+                case DOUBLE:
+                    if (bounds != null && bounds.uses(code)) {
+                        if (!available(offset + 7)) {
+                            return layer;
+                        }
+                        long bits = 0;
+                        for (int i = 7; i >= 0; i--) {
+                            bits = (bits << 8) | (buffer[position + offset + i] & 0xff);
+                        }
+                        bounds.add(code, Double.longBitsToDouble(bits));
+                    }
+                    offset += 8;
+                    break;
+                case BOOLEAN:
+                    offset += 1;
+                    break;
+                case BINHEX:
+                    if (!available(offset)) {
+                        return layer;
+                    }
+                    offset += 1 + (buffer[position + offset] & 0xff);
+                    break;
+                default:
+                    int start = offset;
+                    while (available(offset) && buffer[position + offset] != 0) {
+                        offset++;
+                    }
+                    if (code == 8 && layer == null) {
+                        layer = decode(position + start, position + offset);
+                        if (bounds == null) {
+                            return layer;
+                        }
+                    }
+                    offset++;
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        lineNumber++;
+        switch (valueType) {
+            case SHORT:
+                require(2);
+                break;
+            case INTEGER:
+                require(4);
+                break;
+            case LONG:
+            case DOUBLE:
+                require(8);
+                break;
+            case BOOLEAN:
+                require(1);
+                break;
+            case BINHEX:
+                require(buffer[require(1)] & 0xff);
+                break;
+            default:
+                position = indexOf((byte) 0) + 1;
+                break;
+        }
+    }
+
+    @Override
+    public long readLong() throws IOException, DXFParseException {
+        lineNumber++;
+        switch (valueType) {
+            case SHORT:
+                return readInt16();
+            case INTEGER:
+                return readInt32();
+            case LONG:
+                return readInt64();
+            case BOOLEAN:
+                return buffer[require(1)];
+            case DOUBLE:
+                return (long) Double.longBitsToDouble(readInt64());
+            default:
+                lineNumber--;
+                String value = readString();
+                try {
+                    return Long.parseLong(value);
+                } catch (NumberFormatException ex) {
+                    throw new DXFParseException(this, "Invalid integer value: " + value);
+                }
+        }
+    }
+
+    @Override
+    public boolean readBoolean() throws IOException {
+        try {
+            return readLong() != 0;
+        } catch (DXFParseException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public double readDouble() throws IOException, DXFParseException {
+        if (valueType == DXFValueType.DOUBLE) {
+            lineNumber++;
+            return Double.longBitsToDouble(readInt64());
+        }
+        if (valueType == DXFValueType.STRING) {
+            String value = readString();
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException ex) {
+                throw new DXFParseException(this, "Invalid floating point value: " + value);
+            }
+        }
+        return readLong();
+    }
+
+    private String readChunk() throws IOException {
+        int length = buffer[require(1)] & 0xff;
+        int start = require(length);
+        char[] hex = new char[2 * length];
+        for (int i = 0; i < length; i++) {
+            int b = buffer[start + i] & 0xff;
+            hex[2 * i] = HEX_DIGITS[b >>> 4];
+            hex[2 * i + 1] = HEX_DIGITS[b & 0xf];
+        }
+        return new String(hex);
+    }
+
+    private short readInt16() throws IOException {
+        int i = require(2);
+        return (short) ((buffer[i] & 0xff) | (buffer[i + 1] << 8));
+    }
+
+    private int readInt32() throws IOException {
+        int i = require(4);
+        return (buffer[i] & 0xff)
+                | (buffer[i + 1] & 0xff) << 8
+                | (buffer[i + 2] & 0xff) << 16
+                | buffer[i + 3] << 24;
+    }
+
+    private long readInt64() throws IOException {
+        int i = require(8);
+        long value = 0;
+        for (int j = 7; j >= 0; j--) {
+            value = value << 8 | (buffer[i + j] & 0xff);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the binary encoding of the values of a group code. This is not
+     * always the value type of {@link DXFGroupCode}, e.g. codes 450-459 are
+     * 32 bit values in binary DXF.
+     */
+    static DXFValueType getValueType(int code) {
+        if ((code >= 10 && code <= 59)
+                || (code >= 110 && code <= 149)
+                || (code >= 210 && code <= 239)
+                || (code >= 460 && code <= 469)
+                || (code >= 1010 && code <= 1059)) {
+            return DXFValueType.DOUBLE;
+        }
+        if ((code >= 60 && code <= 79)
+                || (code >= 170 && code <= 179)
+                || (code >= 270 && code <= 289)
+                || (code >= 370 && code <= 389)
+                || (code >= 400 && code <= 409)
+                || (code >= 1060 && code <= 1070)) {
+            return DXFValueType.SHORT;
+        }
+        if ((code >= 90 && code <= 99)
+                || (code >= 420 && code <= 429)
+                || (code >= 440 && code <= 459)
+                || code == 1071) {
+            return DXFValueType.INTEGER;
+        }
+        if (code >= 160 && code <= 169) {
+            return DXFValueType.LONG;
+        }
+        if (code >= 290 && code <= 299) {
+            return DXFValueType.BOOLEAN;
+        }
+        if ((code >= 310 && code <= 319) || code == 1004) {
+            return DXFValueType.BINHEX;
+        }
+        return DXFValueType.STRING;
+    }
+}
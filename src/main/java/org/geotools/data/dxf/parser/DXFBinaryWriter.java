@@ -0,0 +1,117 @@
+package org.geotools.data.dxf.parser;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Writes the group code / value pairs read by a tokenizer as binary DXF
+ * with 2 byte group codes, so a file can be converted to binary DXF without
+ * parsing its sections. Values are encoded by the width
+ * {@link DXFBinaryTokenizer} expects for their group code.
+ */
+public class DXFBinaryWriter {
+    private final OutputStream out;
+    private final Charset charset;
+    private final byte[] bytes = new byte[8];
+
+    public DXFBinaryWriter(OutputStream out) {
+        this(out, Charset.defaultCharset());
+    }
+
+    public DXFBinaryWriter(OutputStream out, Charset charset) {
+        this.out = out;
+        this.charset = charset;
+    }
+
+    public void writeSentinel() throws IOException {
+        out.write(DXFBinaryTokenizer.SENTINEL);
+    }
+
+    /**
+     * Writes a 999 comment pair.
+     */
+    public void writeComment(String comment) throws IOException {
+        writeShort(999);
+        writeString(comment);
+    }
+
+    /**
+     * Copies all remaining pairs of the tokenizer.
+     *
+     * @throws DXFParseException if a value does not fit the binary type of
+     * its group code
+     */
+    public void copy(DXFTokenizer in) throws IOException, DXFParseException {
+        while (true) {
+            int code;
+            try {
+                code = in.readGroupCode();
+            } catch (EOFException e) {
+                return;
+            }
+            writeShort(code);
+            switch (DXFBinaryTokenizer.getValueType(code)) {
+                case DOUBLE:
+                    writeLong(Double.doubleToRawLongBits(in.readDouble()), 8);
+                    break;
+                case SHORT:
+                    writeShort(in.readShort());
+                    break;
+                case INTEGER:
+                    writeLong(in.readInt(), 4);
+                    break;
+                case LONG:
+                    writeLong(in.readLong(), 8);
+                    break;
+                case BOOLEAN:
+                    out.write(in.readBoolean() ? 1 : 0);
+                    break;
+                case BINHEX:
+                    writeChunk(in, in.readString());
+                    break;
+                default:
+                    writeString(in.readString());
+                    break;
+            }
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeShort(int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >> 8) & 0xff);
+    }
+
+    private void writeLong(long value, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (value >> (8 * i));
+        }
+        out.write(bytes, 0, length);
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write(value.getBytes(charset));
+        out.write(0);
+    }
+
+    private void writeChunk(DXFTokenizer in, String hex) throws IOException, DXFParseException {
+        int length = hex.length() / 2;
+        if (hex.length() % 2 != 0 || length > 255) {
+            throw new DXFParseException(in, "Invalid binary chunk: " + hex);
+        }
+        out.write(length);
+        for (int i = 0; i < length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new DXFParseException(in, "Invalid binary chunk: " + hex);
+            }
+            out.write(high << 4 | low);
+        }
+    }
+}
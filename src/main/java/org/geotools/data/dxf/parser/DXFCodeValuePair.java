@@ -3,142 +3,191 @@ package org.geotools.data.dxf.parser;
 import java.io.IOException;
 
 /**
+ * Mutable cursor holding the current group code / value pair of a
+ * {@link DXFTokenizer}. There is one cursor per tokenizer, which is reused
+ * for every pair read.
  *
  * @author Chris
  *
  * @source $URL: http://svn.osgeo.org/geotools/branches/2.7.x/build/maven/javadoc/../../../modules/unsupported/dxf/src/main/java/org/geotools/data/dxf/parser/DXFCodeValuePair.java $
  */
 public class DXFCodeValuePair {
+    private final DXFTokenizer tokenizer;
     private DXFGroupCode gc;
-    private short shortValue = 0;
-    private int intValue = 0;
-    private String stringValue = null;
-    private boolean booleanValue = false;
-    private double doubleValue = 0.0;
+    /* Integral values (SHORT, INTEGER, LONG and BOOLEAN) */
     private long longValue = 0l;
-    private String handleHexValue = null;
-    private String idHexValue = null;
-    private String binHexValue = null;
-
-    public DXFGroupCode read(DXFLineNumberReader br) throws IOException, DXFParseException {
-
-        br.mark();
-        // 1ste regel van paar
-        String regel = br.readLine();
+    private double doubleValue = 0.0;
+    /* STRING and the hex encoded value types */
+    private String stringValue = null;
+    /* set by unread(), the next read() returns the current pair again */
+    private boolean pushedBack = false;
+
+    /**
+     * Creates the cursor of the given tokenizer. Use
+     * {@link DXFTokenizer#getCodeValuePair()} to obtain it.
+     */
+    DXFCodeValuePair(DXFTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
 
-        int gcInt;
-        try {
-            gcInt = Integer.parseInt(regel);
-        } catch (NumberFormatException nfe) {
-            throw new DXFParseException(br, "Unknown Group Code: " + regel);
+    /**
+     * Reads the next pair from the tokenizer into this cursor. The previous
+     * values are overwritten, unless the pair was pushed back with
+     * {@link DXFTokenizer#unread()}.
+     */
+    public DXFGroupCode read() throws IOException, DXFParseException {
+        if (pushedBack) {
+            pushedBack = false;
+            return gc;
         }
+        DXFTokenizer br = tokenizer;
 
-        gc = DXFGroupCode.getGroupCode(gcInt);
-
-        // 2de regel van paar
-        regel = br.readLine();
+        gc = DXFGroupCode.getGroupCode(br.readGroupCode());
 
         switch (gc.toType()) {
             case STRING:
-                stringValue = regel;
-                break;
             case HANDLEHEX:
-                handleHexValue = regel;
-                break;
             case IDHEX:
-                idHexValue = regel;
-                break;
             case BINHEX:
-                binHexValue = regel;
+                stringValue = br.readString();
                 break;
             case SHORT:
-                shortValue = Short.parseShort(regel);
+                longValue = br.readShort();
                 break;
             case INTEGER:
-                intValue = Integer.parseInt(regel);
+                longValue = br.readInt();
                 break;
             case LONG:
-                longValue = Long.parseLong(regel);
+                longValue = br.readLong();
                 break;
             case BOOLEAN:
-                booleanValue = Boolean.parseBoolean(regel);
+                longValue = br.readBoolean() ? 1 : 0;
                 break;
             case DOUBLE:
-                doubleValue = Double.parseDouble(regel);
+                doubleValue = br.readDouble();
                 break;
             default:
                 throw new DXFParseException(br, "Unknown value type for Group Code: " + gc);
         }
 
+        return gc;
+    }
 
+    /**
+     * Skips pairs without decoding their values up to the next 0 pair, which
+     * is read into this cursor.
+     */
+    public DXFGroupCode skipToType() throws IOException, DXFParseException {
+        if (pushedBack) {
+            pushedBack = false;
+            if (gc == DXFGroupCode.TYPE) {
+                return gc;
+            }
+        }
+        DXFTokenizer br = tokenizer;
+        while (br.readGroupCode() != 0) {
+            br.skipValue();
+        }
+        gc = DXFGroupCode.TYPE;
+        stringValue = br.readString();
         return gc;
     }
 
+    void unread() throws IOException {
+        if (gc == null || pushedBack) {
+            throw new IOException("No pair to push back");
+        }
+        pushedBack = true;
+    }
+
     public DXFGroupCode getGc() {
         return gc;
     }
 
+    public DXFValueType getType() {
+        return gc == null ? null : gc.toType();
+    }
+
+    /**
+     * Checks the value type of the current pair. The typed getters do not
+     * fail on a type mismatch but convert the value, so this can be used
+     * when the conversion is not wanted. A string that is not a number
+     * fails the numeric getters with a NumberFormatException.
+     */
+    public boolean isType(DXFValueType type) {
+        return gc != null && gc.toType() == type;
+    }
+
     public short getShortValue() {
-        if (!DXFValueType.SHORT.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
-        }
-        return shortValue;
+        return (short) getLongValue();
     }
 
     public int getIntValue() {
-        if (!DXFValueType.INTEGER.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
-        }
-        return intValue;
+        return (int) getLongValue();
     }
 
     public String getStringValue() {
-        if (!DXFValueType.STRING.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
+        if (isString()) {
+            return stringValue;
+        }
+        if (isType(DXFValueType.DOUBLE)) {
+            return Double.toString(doubleValue);
         }
-        return stringValue;
+        return Long.toString(longValue);
     }
 
     public boolean isBooleanValue() {
-        if (!DXFValueType.BOOLEAN.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
-        }
-        return booleanValue;
+        return getLongValue() != 0;
     }
 
     public double getDoubleValue() {
-        if (!DXFValueType.DOUBLE.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
+        if (isType(DXFValueType.DOUBLE)) {
+            return doubleValue;
+        }
+        if (isString()) {
+            try {
+                return Double.parseDouble(stringValue);
+            } catch (NumberFormatException ex) {
+                throw invalidNumber();
+            }
         }
-        return doubleValue;
+        return longValue;
     }
 
     public long getLongValue() {
-        if (!DXFValueType.LONG.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
+        if (isType(DXFValueType.DOUBLE)) {
+            return (long) doubleValue;
+        }
+        if (isString()) {
+            try {
+                return Long.parseLong(stringValue);
+            } catch (NumberFormatException ex) {
+                throw invalidNumber();
+            }
         }
         return longValue;
     }
 
     public String getHandleHexValue() {
-        if (!DXFValueType.HANDLEHEX.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
-        }
-        return handleHexValue;
+        return getStringValue();
     }
 
     public String getIdHexValue() {
-        if (!DXFValueType.IDHEX.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
-        }
-        return idHexValue;
+        return getStringValue();
     }
 
     public String getBinHexValue() {
-        if (!DXFValueType.BINHEX.equals(gc.toType())) {
-            throw new Error("Wrong Value Type for Group Code!");
-        }
-        return binHexValue;
+        return getStringValue();
+    }
+
+    private NumberFormatException invalidNumber() {
+        return new NumberFormatException("line " + tokenizer.getLineNumber() + ": Invalid number value for Group Code "
+                + gc + ": " + stringValue);
     }
 
+    private boolean isString() {
+        DXFValueType type = getType();
+        return type == DXFValueType.STRING || type == DXFValueType.HANDLEHEX
+                || type == DXFValueType.IDHEX || type == DXFValueType.BINHEX;
+    }
 }
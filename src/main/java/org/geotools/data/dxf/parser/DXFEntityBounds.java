@@ -0,0 +1,117 @@
+package org.geotools.data.dxf.parser;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Computes the envelope of an entity from its raw group code pairs, before
+ * it is decoded, so entities outside a window can be skipped. The envelope
+ * contains the geometry of the entity, but may be larger: arcs, circles and
+ * ellipses are bounded by their full circle, bulges by the largest circle
+ * they can span.
+ *
+ * Only the types whose geometry follows from their own coordinate pairs are
+ * bounded; inserts, dimensions, splines and other types have no envelope.
+ */
+public final class DXFEntityBounds implements DXFConstants {
+    private static final Set<String> BOUNDED_TYPES = new HashSet<String>(Arrays.asList(
+            LINE, POINT, CIRCLE, ARC, ELLIPSE, SOLID, TRACE, FACE3D, TEXT, MTEXT,
+            LWPOLYLINE, POLYLINE, LEADER));
+
+    private boolean bounded;
+    private boolean ellipse;
+    private boolean circle;
+    private double minX, minY, maxX, maxY;
+    private double radius, ratio, axisX, axisY, bulge;
+
+    /**
+     * Checks whether entities of a type get an envelope.
+     */
+    public static boolean isBounded(String type) {
+        return BOUNDED_TYPES.contains(type);
+    }
+
+    /**
+     * Starts the envelope of an entity of a type.
+     */
+    public void reset(String type) {
+        bounded = isBounded(type);
+        ellipse = ELLIPSE.equals(type);
+        circle = CIRCLE.equals(type) || ARC.equals(type);
+        minX = minY = Double.POSITIVE_INFINITY;
+        maxX = maxY = Double.NEGATIVE_INFINITY;
+        radius = 0;
+        ratio = 1;
+        axisX = axisY = 0;
+        bulge = 0;
+    }
+
+    /**
+     * Checks whether the value of a group code changes the envelope.
+     */
+    public boolean uses(int code) {
+        return bounded && (code >= 10 && code <= 28 || code == 40 || code == 42);
+    }
+
+    /**
+     * Adds the value of a pair, see {@link #uses(int)}.
+     */
+    public void add(int code, double value) {
+        if (!bounded) {
+            return;
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            invalidate();
+        } else if (ellipse && code == 11) {
+            // The end of the major axis, relative to the center
+            axisX = value;
+        } else if (ellipse && code == 21) {
+            axisY = value;
+        } else if (code >= 10 && code <= 18) {
+            minX = Math.min(minX, value);
+            maxX = Math.max(maxX, value);
+        } else if (code >= 20 && code <= 28) {
+            minY = Math.min(minY, value);
+            maxY = Math.max(maxY, value);
+        } else if (code == 40 && circle) {
+            radius = Math.max(radius, Math.abs(value));
+        } else if (code == 40 && ellipse) {
+            ratio = Math.max(1, Math.abs(value));
+        } else if (code == 42) {
+            bulge = Math.max(bulge, Math.abs(value));
+        }
+    }
+
+    /**
+     * Drops the envelope, for entities whose coordinates can not be read.
+     */
+    public void invalidate() {
+        bounded = false;
+    }
+
+    /**
+     * Returns the envelope of the pairs added since the last reset, or null
+     * if the entity has no envelope.
+     */
+    public Envelope getEnvelope() {
+        if (!bounded || minX > maxX || minY > maxY) {
+            return null;
+        }
+        Envelope envelope = new Envelope(minX, maxX, minY, maxY);
+        double margin = radius;
+        if (ellipse) {
+            margin = Math.max(margin, Math.hypot(axisX, axisY) * ratio);
+        }
+        if (bulge > 0) {
+            // An arc with bulge b lies within |b| times its chord of the
+            // middle of the chord, and within half the chord for |b| <= 1
+            double diagonal = Math.hypot(maxX - minX, maxY - minY);
+            margin = Math.max(margin, diagonal * Math.max(1, bulge));
+        }
+        envelope.expandBy(margin);
+        return envelope;
+    }
+}
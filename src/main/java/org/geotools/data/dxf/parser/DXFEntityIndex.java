@@ -0,0 +1,158 @@
+package org.geotools.data.dxf.parser;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * Index of the entities of an ASCII DXF file in a buffer, made by
+ * {@link DXFUnivers#index(ByteBuffer)} without decoding the entities. For
+ * every entity the buffer index of its 0 pair, its type, layer, handle and
+ * envelope are kept in primitive arrays; type and layer names are stored
+ * once. An
+ * entity is decoded with {@link DXFUnivers#readEntity(DXFEntityIndex, int)}.
+ *
+ * The index is not changed after it has been made, so it can be read by
+ * several threads.
+ */
+public final class DXFEntityIndex {
+    private static final int SLOT_SIZE = 4 + 4 + 4 + 8 + 4 * 8; // Bytes per entity in offsets, types, layers, handles and bounds
+    private static final int NAME_SIZE = 64; // Estimated bytes of a type or layer name besides its chars, with its list and map entries
+    private final ByteBuffer data;
+    private int size = 0;
+    private int[] offsets = new int[1024];
+    private int[] types = new int[1024];
+    private int[] layers = new int[1024];
+    private long[] handles = new long[1024];
+    /* minX, minY, maxX, maxY for every entity, NaN if it has no envelope */
+    private double[] bounds = new double[4 * 1024];
+    private final List<String> names = new ArrayList<String>();
+    private final Map<String, Integer> nameIndexes = new HashMap<String, Integer>();
+
+    DXFEntityIndex(ByteBuffer data) {
+        this.data = data;
+    }
+
+    void add(int offset, String type) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * size);
+            types = Arrays.copyOf(types, 2 * size);
+            layers = Arrays.copyOf(layers, 2 * size);
+            handles = Arrays.copyOf(handles, 2 * size);
+            bounds = Arrays.copyOf(bounds, 8 * size);
+        }
+        offsets[size] = offset;
+        types[size] = getNameIndex(type);
+        layers[size] = -1;
+        handles[size] = -1;
+        Arrays.fill(bounds, 4 * size, 4 * size + 4, Double.NaN);
+        size++;
+    }
+
+    void setLayer(String layer) {
+        layers[size - 1] = getNameIndex(layer);
+    }
+
+    void setHandle(long handle) {
+        handles[size - 1] = handle;
+    }
+
+    void setBounds(Envelope envelope) {
+        if (envelope != null) {
+            int i = 4 * (size - 1);
+            bounds[i] = envelope.getMinX();
+            bounds[i + 1] = envelope.getMinY();
+            bounds[i + 2] = envelope.getMaxX();
+            bounds[i + 3] = envelope.getMaxY();
+        }
+    }
+
+    boolean hasLayer() {
+        return layers[size - 1] >= 0;
+    }
+
+    boolean hasHandle() {
+        return handles[size - 1] >= 0;
+    }
+
+    private int getNameIndex(String name) {
+        Integer index = nameIndexes.get(name);
+        if (index == null) {
+            index = names.size();
+            names.add(name);
+            nameIndexes.put(name, index);
+        }
+        return index;
+    }
+
+    ByteBuffer getData() {
+        return data;
+    }
+
+    /**
+     * Estimates the heap memory used by the index and the data it refers to.
+     */
+    public long getMemorySize() {
+        long size = (long) SLOT_SIZE * offsets.length;
+        for (String name : names) {
+            size += NAME_SIZE + 2L * name.length();
+        }
+        if (data.hasArray()) {
+            size += data.capacity();
+        }
+        return size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the buffer index of the 0 pair of an entity.
+     */
+    public int getOffset(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * Returns the buffer index after an entity, which is the start of the
+     * next entity or the end of the buffer.
+     */
+    public int getEnd(int i) {
+        return i + 1 < size ? offsets[i + 1] : data.limit();
+    }
+
+    public String getType(int i) {
+        return names.get(types[i]);
+    }
+
+    /**
+     * Returns the layer name of an entity, or null if it has none.
+     */
+    public String getLayer(int i) {
+        return layers[i] < 0 ? null : names.get(layers[i]);
+    }
+
+    /**
+     * Returns the handle of an entity, or -1 if it has none.
+     */
+    public long getHandle(int i) {
+        return handles[i];
+    }
+
+    /**
+     * Returns the envelope of an entity in DXF coordinates, see
+     * {@link DXFEntityBounds}, or null if it has none.
+     */
+    public Envelope getBounds(int i) {
+        if (Double.isNaN(bounds[4 * i])) {
+            return null;
+        }
+        return new Envelope(bounds[4 * i], bounds[4 * i + 2], bounds[4 * i + 1], bounds[4 * i + 3]);
+    }
+}
@@ -369,8 +369,24 @@ public enum DXFGroupCode {
     XDATA_SCALE_FACTOR(1042, DXFValueType.DOUBLE),
     XDATA_INT16(1070, DXFValueType.SHORT),
     XDATA_INT32(1071, DXFValueType.INTEGER);
-    private int m_code;
-    private DXFValueType m_type;
+    private static final Logger LOGGER = Logger.getLogger(DXFGroupCode.class.getName());
+    private static final DXFGroupCode[] LOOKUP;
+
+    static {
+        int max = 0;
+        for (DXFGroupCode agc : values()) {
+            max = Math.max(max, agc.m_code);
+        }
+        LOOKUP = new DXFGroupCode[max + 1];
+        for (DXFGroupCode agc : values()) {
+            if (agc.m_code >= 0) {
+                LOOKUP[agc.m_code] = agc;
+            }
+        }
+    }
+
+    private final int m_code;
+    private final DXFValueType m_type;
 
     DXFGroupCode(int code, DXFValueType type) {
         m_code = code;
@@ -385,13 +401,21 @@ public enum DXFGroupCode {
         return m_type;
     }
 
+    /**
+     * Returns the group code for the given integer code. The lookup is a
+     * single array access; the returned constant also carries the value type
+     * of the code.
+     */
     public static DXFGroupCode getGroupCode(int code) {
-        for (DXFGroupCode agc : DXFGroupCode.values()) {
-            if (agc.toInt() == code) {
+        if (code >= 0 && code < LOOKUP.length) {
+            DXFGroupCode agc = LOOKUP[code];
+            if (agc != null) {
                 return agc;
             }
+        } else if (code == UNSUPPORTED.m_code) {
+            return UNSUPPORTED;
         }
-        Logger.getLogger(DXFGroupCode.class.getName()).warning("Unknown Group Code: " + code + ", should not happen, parse error?");
+        LOGGER.warning("Unknown Group Code: " + code + ", should not happen, parse error?");
 
         return UNSUPPORTED;
     }
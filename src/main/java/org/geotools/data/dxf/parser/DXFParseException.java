@@ -17,7 +17,7 @@ import org.geotools.data.dxf.entities.DXFEntity;
 public class DXFParseException extends Exception {
     private String message;
 
-    public DXFParseException(DXFLineNumberReader reader, String message) {
+    public DXFParseException(DXFTokenizer reader, String message) {
         super();
         this.message = "line " + reader.getLineNumber() + ": " + message;
     }
@@ -0,0 +1,280 @@
+package org.geotools.data.dxf.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the sections of an ASCII DXF file without parsing their contents.
+ * A section starts with the pairs 0/SECTION and 2/name and ends with
+ * 0/ENDSEC. Only lines following a "0" line are compared, all other lines
+ * are skipped, which is much faster than tokenizing the file.
+ *
+ * A value line "0" can not be followed by SECTION or ENDSEC, as the next
+ * line is a group code, so the lines do not have to be paired.
+ */
+final class DXFSectionScanner implements DXFConstants {
+    private final ByteBuffer data;
+    private final int limit;
+    private int position;
+
+    /* trimmed bounds of the last line */
+    private int lineStart;
+    private int lineEnd;
+
+    static final class Section {
+        final String name;
+        /* buffer index of the first pair after the section name */
+        final int start;
+        /* buffer index after the ENDSEC line */
+        final int end;
+
+        Section(String name, int start, int end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private DXFSectionScanner(ByteBuffer data) {
+        this.data = data;
+        this.limit = data.limit();
+        this.position = data.position();
+    }
+
+    /**
+     * Returns the sections in the remaining bytes of the buffer, in file
+     * order. A section without ENDSEC extends to the end of the buffer.
+     */
+    static List<Section> scan(ByteBuffer data) {
+        return new DXFSectionScanner(data).scan();
+    }
+
+    /**
+     * Splits the contents of a section into at most {@code chunks} ranges of
+     * roughly equal size. Every range but the first starts with the 0 pair
+     * of an entity; ranges never start at a VERTEX, ATTRIB or SEQEND, which
+     * belong to the entity before them.
+     *
+     * @return the buffer indexes of the range boundaries, starting with the
+     * start and ending with the end of the section
+     */
+    static int[] split(ByteBuffer data, Section section, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        int count = 0;
+        bounds[count++] = section.start;
+        long length = section.end - section.start;
+        DXFSectionScanner scanner = new DXFSectionScanner(data);
+        for (int i = 1; i < chunks; i++) {
+            int target = (int) (section.start + length * i / chunks);
+            if (target <= scanner.position) {
+                continue;
+            }
+            scanner.position = target;
+            // skip the rest of the line the target falls in
+            scanner.nextLine();
+            int boundary = scanner.nextEntityStart(section.end);
+            if (boundary < 0) {
+                break;
+            }
+            bounds[count++] = boundary;
+        }
+        bounds[count++] = section.end;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Adds the entities of a section to the index. The lines are read in
+     * pairs; VERTEX and SEQEND belong to the entity before them, so only the
+     * first layer and handle of an entity are recorded. ATTRIB entities are
+     * read as entities of their own, so they get their own entries.
+     */
+    static void index(ByteBuffer data, Section section, DXFEntityIndex index) {
+        DXFSectionScanner scanner = new DXFSectionScanner(data);
+        scanner.position = section.start;
+        scanner.index(section.end, index);
+    }
+
+    private void index(int end, DXFEntityIndex index) {
+        boolean inEntity = false;
+        DXFEntityBounds bounds = new DXFEntityBounds();
+        byte[] value = new byte[64];
+        while (position < end) {
+            int pairStart = position;
+            if (!nextLine()) {
+                break;
+            }
+            int code = lineToCode();
+            if (!nextLine()) {
+                break;
+            }
+            if (code == 0) {
+                if (lineEquals(VERTEX) || lineEquals(SEQEND)) {
+                    continue;
+                }
+                if (inEntity) {
+                    index.setBounds(bounds.getEnvelope());
+                }
+                if (lineEquals(ENDSEC)) {
+                    inEntity = false;
+                    break;
+                }
+                String type = lineToString();
+                index.add(pairStart, type);
+                bounds.reset(type);
+                inEntity = true;
+            } else if (inEntity && code == 8 && !index.hasLayer()) {
+                index.setLayer(lineToString());
+            } else if (inEntity && code == 5 && !index.hasHandle()) {
+                try {
+                    index.setHandle(Long.parseUnsignedLong(lineToString(), 16));
+                } catch (NumberFormatException ex) {
+                    // no handle
+                }
+            } else if (inEntity && bounds.uses(code)) {
+                if (lineEnd - lineStart > value.length) {
+                    value = new byte[lineEnd - lineStart];
+                }
+                for (int i = lineStart; i < lineEnd; i++) {
+                    value[i - lineStart] = data.get(i);
+                }
+                double v = DXFDoubleParser.parse(value, 0, lineEnd - lineStart);
+                if (Double.isNaN(v)) {
+                    try {
+                        v = Double.parseDouble(lineToString());
+                    } catch (NumberFormatException ex) {
+                        // Reported when the entity is read
+                    }
+                }
+                bounds.add(code, v);
+            }
+        }
+        if (inEntity) {
+            index.setBounds(bounds.getEnvelope());
+        }
+    }
+
+    /**
+     * Returns the group code on the last line, or -1 if it is not a number.
+     */
+    private int lineToCode() {
+        if (lineStart == lineEnd || lineEnd - lineStart > 6) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = lineStart; i < lineEnd; i++) {
+            int digit = data.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            code = code * 10 + digit;
+        }
+        return code;
+    }
+
+    private String lineToString() {
+        byte[] bytes = new byte[lineEnd - lineStart];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = data.get(lineStart + i);
+        }
+        return new String(bytes, Charset.defaultCharset());
+    }
+
+    /**
+     * Advances to the next 0 pair that starts an independent entity.
+     *
+     * @return the buffer index of the 0 line, or -1 if there is none before
+     * the end
+     */
+    private int nextEntityStart(int end) {
+        int zeroLine = -1;
+        while (position < end) {
+            int begin = position;
+            nextLine();
+            if (zeroLine >= 0 && isEntityType()) {
+                return zeroLine;
+            }
+            zeroLine = lineEnd - lineStart == 1 && data.get(lineStart) == '0' ? begin : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the last line is an entity type that starts a new
+     * entity. A line after a "0" line that is not a number can only be the
+     * value of a 0 pair.
+     */
+    private boolean isEntityType() {
+        if (lineEquals(VERTEX) || lineEquals(ATTRIB) || lineEquals(SEQEND) || lineEquals(ENDSEC)) {
+            return false;
+        }
+        for (int i = lineStart; i < lineEnd; i++) {
+            byte b = data.get(i);
+            if ((b < '0' || b > '9') && !(b == '-' && i == lineStart)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Section> scan() {
+        List<Section> sections = new ArrayList<Section>();
+        String name = null;
+        int start = 0;
+        boolean afterZero = false;
+        while (nextLine()) {
+            if (afterZero) {
+                if (name == null && lineEquals(SECTION)) {
+                    if (nextLine() && lineEquals("2") && nextLine()) {
+                        name = lineToString();
+                        start = position;
+                    }
+                } else if (name != null && lineEquals(ENDSEC)) {
+                    sections.add(new Section(name, start, position));
+                    name = null;
+                }
+            }
+            afterZero = lineEnd - lineStart == 1 && data.get(lineStart) == '0';
+        }
+        if (name != null) {
+            sections.add(new Section(name, start, limit));
+        }
+        return sections;
+    }
+
+    private boolean nextLine() {
+        if (position >= limit) {
+            return false;
+        }
+        int start = position;
+        int end = start;
+        while (end < limit && data.get(end) != '\n') {
+            end++;
+        }
+        position = end < limit ? end + 1 : end;
+
+        while (start < end && (data.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (data.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        lineStart = start;
+        lineEnd = end;
+        return true;
+    }
+
+    private boolean lineEquals(String value) {
+        if (lineEnd - lineStart != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (data.get(lineStart + i) != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
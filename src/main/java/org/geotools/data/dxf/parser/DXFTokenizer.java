@@ -0,0 +1,500 @@
+package org.geotools.data.dxf.parser;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tokenizer for ASCII DXF files. Scans the raw bytes of the input in a
+ * single buffer and decodes group codes and numeric values directly from the
+ * bytes, without creating intermediate Strings for every line.
+ *
+ * Each group code / value pair spans two lines. Leading and trailing white
+ * space of both lines is ignored.
+ *
+ * Use {@link #create(InputStream)} to get the tokenizer matching the format
+ * of the input, binary DXF is read by {@link DXFBinaryTokenizer}.
+ */
+public class DXFTokenizer implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final Charset charset;
+    private final DXFCodeValuePair codeValuePair = new DXFCodeValuePair(this);
+    protected byte[] buffer;
+    protected int position = 0;
+    private int limit = 0;
+    private boolean eof = false;
+    protected int lineNumber = 0;
+
+    /* trimmed bounds of the last line read */
+    private int lineStart;
+    private int lineEnd;
+
+    public DXFTokenizer(InputStream in) {
+        this(in, Charset.defaultCharset());
+    }
+
+    public DXFTokenizer(InputStream in, Charset charset) {
+        this.in = in;
+        this.charset = charset;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    public DXFTokenizer(ByteBuffer data) {
+        this(data, Charset.defaultCharset());
+    }
+
+    /**
+     * Creates a tokenizer for the remaining bytes of the given buffer. The
+     * backing array of a heap buffer is scanned in place, other buffers are
+     * copied in blocks.
+     */
+    public DXFTokenizer(ByteBuffer data, Charset charset) {
+        this.charset = charset;
+        if (data.hasArray()) {
+            this.in = InputStream.nullInputStream();
+            this.buffer = data.array();
+            this.position = data.arrayOffset() + data.position();
+            this.limit = data.arrayOffset() + data.limit();
+            this.eof = true;
+        } else {
+            this.in = new ByteBufferInputStream(new ByteBuffer[]{data.slice()});
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+    }
+
+    /**
+     * Creates a tokenizer for the given input. Binary DXF is recognized by
+     * its sentinel, everything else is read as ASCII DXF.
+     */
+    public static DXFTokenizer create(InputStream in) throws IOException {
+        byte[] head = in.readNBytes(DXFBinaryTokenizer.SENTINEL.length);
+        if (Arrays.equals(head, DXFBinaryTokenizer.SENTINEL)) {
+            return new DXFBinaryTokenizer(in);
+        }
+        DXFTokenizer tokenizer = new DXFTokenizer(in);
+        System.arraycopy(head, 0, tokenizer.buffer, 0, head.length);
+        tokenizer.limit = head.length;
+        return tokenizer;
+    }
+
+    /**
+     * Creates a tokenizer for the remaining bytes of the given buffer, see
+     * {@link #create(InputStream)}.
+     */
+    public static DXFTokenizer create(ByteBuffer data) {
+        int length = DXFBinaryTokenizer.SENTINEL.length;
+        if (data.remaining() >= length) {
+            byte[] head = new byte[length];
+            data.duplicate().get(head);
+            if (Arrays.equals(head, DXFBinaryTokenizer.SENTINEL)) {
+                return new DXFBinaryTokenizer(data.slice().position(length));
+            }
+        }
+        return new DXFTokenizer(data);
+    }
+
+    /**
+     * Creates a tokenizer for the remaining bytes of consecutive buffers,
+     * see {@link #create(InputStream)}.
+     */
+    public static DXFTokenizer create(ByteBuffer[] segments) throws IOException {
+        return create(getInputStream(segments));
+    }
+
+    /**
+     * Returns a stream of the remaining bytes of consecutive buffers. The
+     * positions of the buffers are not changed.
+     */
+    public static InputStream getInputStream(ByteBuffer[] segments) {
+        ByteBuffer[] slices = new ByteBuffer[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            slices[i] = segments[i].slice();
+        }
+        return new ByteBufferInputStream(slices);
+    }
+
+    /**
+     * Returns the cursor of this tokenizer. The same instance is returned on
+     * every call, {@link DXFCodeValuePair#read()} advances it to the next pair.
+     */
+    public DXFCodeValuePair getCodeValuePair() {
+        return codeValuePair;
+    }
+
+    /**
+     * Returns the number of lines consumed so far.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Pushes back the pair that was read last by the cursor, so that the
+     * next {@link DXFCodeValuePair#read()} returns it again. Only one pair
+     * can be pushed back.
+     */
+    public void unread() throws IOException {
+        codeValuePair.unread();
+    }
+
+    /**
+     * Reads the group code line of the next pair.
+     */
+    public int readGroupCode() throws IOException, DXFParseException {
+        readLine();
+        int i = lineStart;
+        boolean negative = i < lineEnd && buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == lineEnd) {
+            throw new DXFParseException(this, "Unknown Group Code: " + lineToString());
+        }
+        int code = 0;
+        for (; i < lineEnd; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9 || code > 100000) {
+                throw new DXFParseException(this, "Unknown Group Code: " + lineToString());
+            }
+            code = code * 10 + digit;
+        }
+        return negative ? -code : code;
+    }
+
+    /**
+     * Reads the value line of the current pair as a String.
+     */
+    public String readString() throws IOException {
+        readLine();
+        return lineToString();
+    }
+
+    /**
+     * Returns the value of the layer (8) pair of the current entity without
+     * consuming any input. The pairs up to the next 0 pair are looked at.
+     *
+     * @return the layer name, or null if the entity has no layer pair
+     */
+    public String peekLayer() throws IOException {
+        return peekLayer(null);
+    }
+
+    /**
+     * Returns the layer like {@link #peekLayer()}, adding the coordinates of
+     * the pairs up to the next 0 pair to the bounds.
+     *
+     * @param bounds the bounds of the entity, or null
+     */
+    public String peekLayer(DXFEntityBounds bounds) throws IOException {
+        int offset = 0;
+        boolean codeLine = true;
+        int code = -1;
+        String layer = null;
+        while (available(offset)) {
+            int start = offset;
+            while (available(offset) && buffer[position + offset] != '\n') {
+                offset++;
+            }
+            int lineStart = position + start;
+            int lineEnd = position + offset;
+            offset++;
+            while (lineStart < lineEnd && (buffer[lineStart] & 0xff) <= ' ') {
+                lineStart++;
+            }
+            while (lineEnd > lineStart && (buffer[lineEnd - 1] & 0xff) <= ' ') {
+                lineEnd--;
+            }
+            if (codeLine) {
+                code = lineStart < lineEnd && lineEnd - lineStart <= 6 ? 0 : -1;
+                for (int i = lineStart; i < lineEnd && code >= 0; i++) {
+                    int digit = buffer[i] - '0';
+                    code = digit < 0 || digit > 9 ? -1 : code * 10 + digit;
+                }
+                if (code == 0) {
+                    break;
+                }
+            } else if (code == 8 && layer == null) {
+                layer = decode(lineStart, lineEnd);
+                if (bounds == null) {
+                    break;
+                }
+            } else if (bounds != null && bounds.uses(code)) {
+                double value = DXFDoubleParser.parse(buffer, lineStart, lineEnd);
+                if (Double.isNaN(value)) {
+                    try {
+                        value = Double.parseDouble(decode(lineStart, lineEnd));
+                    } catch (NumberFormatException ex) {
+                        // Reported when the entity is read
+                    }
+                }
+                bounds.add(code, value);
+            }
+            codeLine = !codeLine;
+        }
+        return layer;
+    }
+
+    /**
+     * Skips the value line of the current pair.
+     */
+    public void skipValue() throws IOException {
+        readLine();
+    }
+
+    public short readShort() throws IOException, DXFParseException {
+        long value = readLong();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new DXFParseException(this, "Value out of range: " + value);
+        }
+        return (short) value;
+    }
+
+    public int readInt() throws IOException, DXFParseException {
+        long value = readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new DXFParseException(this, "Value out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    public long readLong() throws IOException, DXFParseException {
+        readLine();
+        int i = lineStart;
+        boolean negative = false;
+        if (i < lineEnd && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        if (i == lineEnd || lineEnd - i > 18) {
+            return parseLongFallback();
+        }
+        long value = 0;
+        for (; i < lineEnd; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return parseLongFallback();
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    public boolean readBoolean() throws IOException {
+        readLine();
+        return lineEnd - lineStart == 4
+                && (buffer[lineStart] | 0x20) == 't'
+                && (buffer[lineStart + 1] | 0x20) == 'r'
+                && (buffer[lineStart + 2] | 0x20) == 'u'
+                && (buffer[lineStart + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * Reads the value line of the current pair as a double. The value is
+     * converted directly from the bytes by {@link DXFDoubleParser}; only the
+     * rare forms it does not handle go through {@link Double#parseDouble}.
+     */
+    public double readDouble() throws IOException, DXFParseException {
+        readLine();
+        double value = DXFDoubleParser.parse(buffer, lineStart, lineEnd);
+        if (Double.isNaN(value)) {
+            return parseDoubleFallback();
+        }
+        return value;
+    }
+
+    private long parseLongFallback() throws DXFParseException {
+        String value = lineToString();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new DXFParseException(this, "Invalid integer value: " + value);
+        }
+    }
+
+    private double parseDoubleFallback() throws DXFParseException {
+        String value = lineToString();
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            throw new DXFParseException(this, "Invalid floating point value: " + value);
+        }
+    }
+
+    private String lineToString() {
+        return decode(lineStart, lineEnd);
+    }
+
+    /**
+     * Decodes {@code buffer[start, end)} into a String.
+     */
+    protected String decode(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] < 0) {
+                return new String(buffer, start, end - start, charset);
+            }
+        }
+        // Pure ASCII, which is compatible with all the code pages used by DXF
+        return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Makes sure the byte at {@code position + offset} is in the buffer,
+     * without consuming input. The buffer may be compacted, so indexes into
+     * it have to be computed from the position again afterwards.
+     *
+     * @return false at the end of the input
+     */
+    protected boolean available(int offset) throws IOException {
+        while (limit - position <= offset) {
+            if (eof) {
+                return false;
+            }
+            fill();
+        }
+        return true;
+    }
+
+    /**
+     * Makes sure at least {@code n} bytes are available from the current
+     * position and advances over them.
+     *
+     * @return the index of the first of the bytes in the buffer
+     */
+    protected int require(int n) throws IOException {
+        while (limit - position < n) {
+            if (eof) {
+                throw new EOFException();
+            }
+            fill();
+        }
+        int start = position;
+        position += n;
+        return start;
+    }
+
+    /**
+     * Returns the index of the next occurrence of the given byte in the
+     * buffer, reading more data as needed. The position is not changed.
+     */
+    protected int indexOf(byte b) throws IOException {
+        int i = position;
+        for (;;) {
+            if (i < limit) {
+                if (buffer[i] == b) {
+                    return i;
+                }
+                i++;
+            } else if (eof) {
+                throw new EOFException();
+            } else {
+                i -= fill();
+            }
+        }
+    }
+
+    /**
+     * Advances over the next line and stores its trimmed bounds.
+     */
+    private void readLine() throws IOException {
+        int i = position;
+        for (;;) {
+            if (i < limit) {
+                if (buffer[i] == '\n') {
+                    break;
+                }
+                i++;
+            } else if (eof) {
+                if (position == limit) {
+                    throw new EOFException();
+                }
+                break;
+            } else {
+                i -= fill();
+            }
+        }
+
+        int start = position;
+        int end = i;
+        position = i < limit ? i + 1 : i;
+        lineNumber++;
+
+        while (start < end && (buffer[start] & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer[end - 1] & 0xff) <= ' ') {
+            end--;
+        }
+        lineStart = start;
+        lineEnd = end;
+    }
+
+    /**
+     * Reads more data into the buffer. Bytes before the current position are
+     * discarded and the remaining data is moved to the start of the buffer.
+     *
+     * @return the number of bytes the buffer contents were shifted left
+     */
+    private int fill() throws IOException {
+        int keep = position;
+        if (keep > 0) {
+            System.arraycopy(buffer, keep, buffer, 0, limit - keep);
+            limit -= keep;
+            position -= keep;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+        }
+        return keep;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer[] segments;
+        private int segment = 0;
+
+        ByteBufferInputStream(ByteBuffer[] segments) {
+            this.segments = segments;
+        }
+
+        private ByteBuffer current() {
+            while (segment < segments.length && !segments[segment].hasRemaining()) {
+                segment++;
+            }
+            return segment < segments.length ? segments[segment] : null;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer data = current();
+            return data != null ? data.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            ByteBuffer data = current();
+            if (data == null) {
+                return -1;
+            }
+            int n = Math.min(len, data.remaining());
+            data.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -15,15 +15,31 @@ import org.locationtech.jts.geom.PrecisionModel;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
 import java.util.Vector;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.LongAdder;
 import org.geotools.data.dxf.entities.DXFEntity;
 
 public class DXFUnivers implements DXFConstants {
     public static final PrecisionModel precisionModel = new PrecisionModel(PrecisionModel.FLOATING);
     public static final int NUM_OF_SEGMENTS = 16; // Minimum number of segments for a circle (also used for arc)
     public static final double MIN_ANGLE = 2 * Math.PI / NUM_OF_SEGMENTS; // Minimum number of segments for a circle (also used for arc)
+    private static final int MIN_CHUNK_SIZE = 1024 * 1024; // Minimum size in bytes of the parts ENTITIES is split into
+    private static final int TABLE_ENTRY_SIZE = 200; // Estimated size in bytes of a layer or line type with its name and map entry
+    private static final int BLOCK_SIZE = 200; // Estimated size in bytes of a block without its entities
+    private static final int BLOCK_ENTITY_SIZE = 700; // Estimated size in bytes of a block entity with the geometry it keeps
     private Vector<DXFBlockReference> _entForUpdate = new Vector<DXFBlockReference>();
     public Vector<DXFTables> theTables = new Vector<DXFTables>();
     public Vector<DXFBlock> theBlocks = new Vector<DXFBlock>();
@@ -31,7 +47,25 @@ public class DXFUnivers implements DXFConstants {
     private DXFHeader _header;
     private GeometryFactory geometryFactory = null;
     private Geometry errorGeometry = null;
-    private HashMap insertsFound = new HashMap();
+    private Map insertsFound = new ConcurrentHashMap();
+    /* symbol tables by upper case name, as AutoCAD compares names without
+       case; the first of equal names wins, as the Vectors are searched in
+       order */
+    private final Map<String, DXFBlock> blocksByName = new ConcurrentHashMap<String, DXFBlock>();
+    private final Map<String, DXFLayer> layersByName = new ConcurrentHashMap<String, DXFLayer>();
+    private final Map<String, DXFLineType> lineTypesByName = new ConcurrentHashMap<String, DXFLineType>();
+    /* the number of Vector elements in the symbol tables, written while
+       holding this and read without it to see whether elements were added */
+    private volatile int indexedBlocks = 0;
+    private volatile int indexedLayers = 0;
+    private volatile int indexedLineTypes = 0;
+    /* the number of indexed layers and line types of each DXFTables,
+       guarded by this */
+    private int[] indexedTableLayers = new int[0];
+    private int[] indexedTableLineTypes = new int[0];
+    private final LongAdder blockLookups = new LongAdder();
+    private final LongAdder layerLookups = new LongAdder();
+    private final LongAdder lineTypeLookups = new LongAdder();
     private ArrayList dxfInsertsFilter;
     private String info = ""; // Used for getInfo();  returns this string with information about the file
 
@@ -43,15 +77,14 @@ public class DXFUnivers implements DXFConstants {
         return dxfInsertsFilter.contains(blockName);
     } 
 
-    public void read(DXFLineNumberReader br) throws IOException {
-        DXFCodeValuePair cvp = null;
+    public void read(DXFTokenizer br) throws IOException {
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -77,15 +110,95 @@ public class DXFUnivers implements DXFConstants {
         //    e.translate(-_header._UCSORG.X(), -_header._UCSORG.Y());
     }
 
-    public void readSection(DXFLineNumberReader br) throws IOException {
-        DXFCodeValuePair cvp = null;
+    /**
+     * Reads the sections before the ENTITIES section and leaves the tokenizer
+     * at the first entity, so the entities can be read one at a time with
+     * {@link DXFEntities#readEntity(DXFTokenizer, DXFUnivers)}.
+     *
+     * @return false if there is no ENTITIES section
+     */
+    public boolean readToEntities(DXFTokenizer br) throws IOException {
+        DXFCodeValuePair cvp = br.getCodeValuePair();
+        DXFGroupCode gc = null;
+        boolean sectionStart = false;
+
+        while (true) {
+            try {
+                gc = cvp.read();
+            } catch (DXFParseException ex) {
+                throw new IOException("DXF parse error" + ex.getLocalizedMessage());
+            } catch (EOFException e) {
+                return false;
+            }
+
+            switch (gc) {
+                case TYPE:
+                    sectionStart = cvp.getStringValue().equals(SECTION);
+                    break;
+                case NAME:
+                    if (sectionStart) {
+                        sectionStart = false;
+                        String name = cvp.getStringValue();
+                        if (name.equals(ENTITIES)) {
+                            return true;
+                        }
+                        readSection(name, br);
+                    }
+                    break;
+                default:
+                    sectionStart = false;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads only the HEADER section, stopping at the first other section.
+     *
+     * @return false if the file does not start with a HEADER section
+     */
+    public boolean readHeader(DXFTokenizer br) throws IOException {
+        DXFCodeValuePair cvp = br.getCodeValuePair();
+        DXFGroupCode gc = null;
+        boolean sectionStart = false;
+
+        while (true) {
+            try {
+                gc = cvp.read();
+            } catch (DXFParseException ex) {
+                throw new IOException("DXF parse error" + ex.getLocalizedMessage());
+            } catch (EOFException e) {
+                return false;
+            }
+
+            switch (gc) {
+                case TYPE:
+                    sectionStart = cvp.getStringValue().equals(SECTION);
+                    break;
+                case NAME:
+                    if (sectionStart) {
+                        if (!cvp.getStringValue().equals(HEADER)) {
+                            return false;
+                        }
+                        readSection(HEADER, br);
+                        return true;
+                    }
+                    break;
+                default:
+                    sectionStart = false;
+                    break;
+            }
+        }
+    }
+
+    public void readSection(DXFTokenizer br) throws IOException {
+        DXFCodeValuePair cvp = br.getCodeValuePair();
         DXFGroupCode gc = null;
 
         boolean doLoop = true;
         while (doLoop) {
-            cvp = new DXFCodeValuePair();
             try {
-                gc = cvp.read(br);
+                gc = cvp.read();
             } catch (DXFParseException ex) {
                 throw new IOException("DXF parse error" + ex.getLocalizedMessage());
             } catch (EOFException e) {
@@ -102,28 +215,7 @@ public class DXFUnivers implements DXFConstants {
                     }
                     break;
                 case NAME:
-                    String name = cvp.getStringValue();
-                    if (name.equals(HEADER)) {
-                        _header = DXFHeader.read(br);
-                        if (_header._EXTMAX == null || _header._EXTMIN == null) {
-                            _header = new DXFHeader();
-                        }
-                        /* construct geometry factory */
-                        geometryFactory = new GeometryFactory(precisionModel, _header._SRID);
-                    } else if (name.equals(TABLES)) {
-                        DXFTables at = DXFTables.readTables(br, this);
-                        theTables.add(at);
-                    } else if (name.equals(BLOCKS)) {
-                        DXFBlocks ab = DXFBlocks.readBlocks(br, this);
-                        theBlocks.addAll(ab.theBlocks);
-                    } else if (name.equals(ENTITIES)) {
-                        DXFEntities dxfes = DXFEntities.readEntities(br, this);
-                        theEntities.addAll(dxfes.theEntities);
-                    // toevoegen aan layer doen we even niet, waarschijnlijk niet nodig
-                    //if (o != null && o._refLayer != null) {
-                    //    o._refLayer.theEnt.add(o);
-                    //}
-                    }
+                    readSection(cvp.getStringValue(), br);
                     break;
                 default:
                     break;
@@ -132,51 +224,417 @@ public class DXFUnivers implements DXFConstants {
         }
     }
 
-    public DXFBlock findBlock(String nom) {
-        DXFBlock b = null;
-        for (int i = 0; i < theBlocks.size(); i++) {
-            if (theBlocks.elementAt(i)._name.equals(nom)) {
-                insertsFound.put(nom, true);
-                return theBlocks.elementAt(i);
+    /**
+     * Reads the contents of the section with the given name, the tokenizer
+     * is positioned after the name.
+     */
+    private void readSection(String name, DXFTokenizer br) throws IOException {
+        if (name.equals(HEADER)) {
+            _header = DXFHeader.read(br);
+            if (_header._EXTMAX == null || _header._EXTMIN == null) {
+                _header = new DXFHeader();
             }
+            /* construct geometry factory */
+            geometryFactory = new GeometryFactory(precisionModel, _header._SRID);
+        } else if (name.equals(TABLES)) {
+            DXFTables at = DXFTables.readTables(br, this);
+            theTables.add(at);
+            indexTables();
+        } else if (name.equals(BLOCKS)) {
+            DXFBlocks ab = DXFBlocks.readBlocks(br, this);
+            theBlocks.addAll(ab.theBlocks);
+            indexBlocks();
+        } else if (name.equals(ENTITIES)) {
+            DXFEntities dxfes = DXFEntities.readEntities(br, this);
+            theEntities.addAll(dxfes.theEntities);
+        // toevoegen aan layer doen we even niet, waarschijnlijk niet nodig
+        //if (o != null && o._refLayer != null) {
+        //    o._refLayer.theEnt.add(o);
+        //}
         }
-        return b;
     }
 
-    public DXFLayer findLayer(String nom) {
-        DXFLayer l = null;
-        for (int i = 0; i < theTables.size(); i++) {
-            for (int j = 0; j < theTables.elementAt(i).theLayers.size(); j++) {
-                if (theTables.elementAt(i).theLayers.elementAt(j).getName().equals(nom)) {
-                    l = theTables.elementAt(i).theLayers.elementAt(j);
-                    return l;
+    /**
+     * Reads a complete file from a buffer. The sections are located first,
+     * then HEADER, TABLES and the other small sections are read in file
+     * order. The BLOCKS and ENTITIES sections, which hold nearly all of the
+     * data, are read concurrently on the common pool afterwards, so layer
+     * and line type lookups always see the complete tables. ENTITIES is
+     * split into chunks of whole entities, the results are concatenated in
+     * file order so the entity order is the same as when read sequentially.
+     *
+     * Binary files are read sequentially.
+     */
+    public void read(ByteBuffer data) throws IOException {
+        DXFTokenizer tokenizer = DXFTokenizer.create(data);
+        if (tokenizer instanceof DXFBinaryTokenizer) {
+            read(tokenizer);
+            return;
+        }
+
+        List<DXFSectionScanner.Section> sections = DXFSectionScanner.scan(data);
+        if (sections.isEmpty()) {
+            read(tokenizer);
+            return;
+        }
+
+        List<DXFSectionScanner.Section> geometrySections = new ArrayList<DXFSectionScanner.Section>();
+        for (DXFSectionScanner.Section section : sections) {
+            if (section.name.equals(BLOCKS) || section.name.equals(ENTITIES)) {
+                geometrySections.add(section);
+            } else {
+                readSection(section.name, new DXFTokenizer(slice(data, section)));
+            }
+        }
+
+        // Split ENTITIES into chunks of whole entities, then start all but
+        // the last task on the pool, the last one is read on this thread
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (final DXFSectionScanner.Section section : geometrySections) {
+            int[] bounds;
+            if (section.name.equals(ENTITIES)) {
+                bounds = DXFSectionScanner.split(data, section, getChunkCount(section.end - section.start));
+            } else {
+                bounds = new int[]{section.start, section.end};
+            }
+            for (int i = 0; i < bounds.length - 1; i++) {
+                final int start = bounds[i];
+                final int end = bounds[i + 1];
+                tasks.add(new Callable<Object>() {
+                    public Object call() throws IOException {
+                        DXFTokenizer br = new DXFTokenizer(slice(data, start, end));
+                        if (section.name.equals(BLOCKS)) {
+                            return DXFBlocks.readBlocks(br, DXFUnivers.this);
+                        }
+                        return DXFEntities.readEntities(br, DXFUnivers.this);
+                    }
+                });
+            }
+        }
+        List<Future<Object>> results = new ArrayList<Future<Object>>();
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i < tasks.size() - 1) {
+                results.add(ForkJoinPool.commonPool().submit(tasks.get(i)));
+            } else {
+                FutureTask<Object> last = new FutureTask<Object>(tasks.get(i));
+                last.run();
+                results.add(last);
+            }
+        }
+
+        // Add the results in file order
+        for (Future<Object> result : results) {
+            Object sectionResult;
+            try {
+                sectionResult = result.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading DXF sections");
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
                 }
+                throw new IOException(cause);
+            }
+            if (sectionResult instanceof DXFBlocks) {
+                theBlocks.addAll(((DXFBlocks) sectionResult).theBlocks);
+                indexBlocks();
+            } else {
+                theEntities.addAll(((DXFEntities) sectionResult).theEntities);
             }
         }
+    }
 
-        l = new DXFLayer(nom, DXFColor.getDefaultColorIndex());
+    /**
+     * Reads a complete file from consecutive buffers, such as the segments
+     * of a mapped file larger than 2 GB. A single buffer is read as by
+     * {@link #read(ByteBuffer)}, more buffers are read sequentially.
+     */
+    public void read(ByteBuffer[] segments) throws IOException {
+        if (segments.length == 1) {
+            read(segments[0]);
+        } else {
+            read(DXFTokenizer.create(segments));
+        }
+    }
 
-        if (theTables.size() < 1) {
-            theTables.add(new DXFTables());
+    /**
+     * Reads all sections but ENTITIES from a buffer and indexes the entities
+     * without decoding them, see {@link DXFEntityIndex}.
+     *
+     * @return the index, or null if the file is binary or has no sections,
+     * in which case nothing has been read
+     */
+    public DXFEntityIndex index(ByteBuffer data) throws IOException {
+        if (DXFTokenizer.create(data) instanceof DXFBinaryTokenizer) {
+            return null;
         }
+        List<DXFSectionScanner.Section> sections = DXFSectionScanner.scan(data);
+        if (sections.isEmpty()) {
+            return null;
+        }
+        DXFEntityIndex index = new DXFEntityIndex(data);
+        for (DXFSectionScanner.Section section : sections) {
+            if (section.name.equals(ENTITIES)) {
+                DXFSectionScanner.index(data, section, index);
+            } else {
+                readSection(section.name, new DXFTokenizer(slice(data, section)));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Decodes an entity of the index. Entities are decoded independently of
+     * each other, also by several threads at once.
+     *
+     * @return the entity, or null if its type is not supported
+     */
+    public DXFEntity readEntity(DXFEntityIndex index, int i) throws IOException {
+        ByteBuffer data = index.getData();
+        DXFTokenizer br;
+        if (data.hasArray()) {
+            br = new DXFTokenizer(slice(data, index.getOffset(i), index.getEnd(i)));
+        } else {
+            // Copy the entity, a tokenizer on a direct buffer allocates a
+            // block sized buffer
+            byte[] bytes = new byte[index.getEnd(i) - index.getOffset(i)];
+            slice(data, index.getOffset(i), index.getEnd(i)).get(bytes);
+            br = new DXFTokenizer(ByteBuffer.wrap(bytes));
+        }
+        return DXFEntities.readEntity(br, this);
+    }
+
+    private static ByteBuffer slice(ByteBuffer data, DXFSectionScanner.Section section) {
+        return slice(data, section.start, section.end);
+    }
+
+    private static ByteBuffer slice(ByteBuffer data, int start, int end) {
+        ByteBuffer slice = data.duplicate();
+        slice.limit(end).position(start);
+        return slice;
+    }
 
-        theTables.elementAt(0).theLayers.add(l);
+    /**
+     * Returns the number of chunks to read a section of the given length
+     * in. Chunks are at least MIN_CHUNK_SIZE bytes, and there are a few per
+     * processor so a slow chunk does not hold up the others.
+     */
+    private static int getChunkCount(int length) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        if (processors == 1) {
+            return 1;
+        }
+        return Math.max(1, Math.min(4 * processors, length / MIN_CHUNK_SIZE));
+    }
+
+    public DXFBlock findBlock(String nom) {
+        blockLookups.increment();
+        if (nom == null) {
+            return null;
+        }
+        String key = symbolKey(nom);
+        DXFBlock b = blocksByName.get(key);
+        if (b == null && theBlocks.size() != indexedBlocks) {
+            indexBlocks();
+            b = blocksByName.get(key);
+        }
+        if (b != null) {
+            insertsFound.put(nom, true);
+        }
+        return b;
+    }
+
+    public DXFLayer findLayer(String nom) {
+        layerLookups.increment();
+        String key = symbolKey(nom);
+        DXFLayer l = layersByName.get(key);
+        if (l != null) {
+            return l;
+        }
+        synchronized (this) {
+            indexTables();
+            l = layersByName.get(key);
+            if (l != null) {
+                return l;
+            }
+
+            l = new DXFLayer(nom, DXFColor.getDefaultColorIndex());
+
+            if (theTables.size() < 1) {
+                theTables.add(new DXFTables());
+            }
+
+            // Indexes just the new layer
+            theTables.elementAt(0).theLayers.add(l);
+            indexTables();
+        }
         return l;
     }
 
+    /**
+     * Returns the name of a layer as spelled in the layer table, or the name
+     * itself if there is no such layer. Unlike {@link #findLayer(String)} it
+     * never adds a layer, so it can be used for entities that may be skipped.
+     */
+    public String getLayerName(String nom) {
+        if (nom == null) {
+            return null;
+        }
+        String key = symbolKey(nom);
+        DXFLayer l = layersByName.get(key);
+        if (l == null && countLayers() != indexedLayers) {
+            indexTables();
+            l = layersByName.get(key);
+        }
+        return l == null ? nom : l.getName();
+    }
+
     public DXFLineType findLType(String name) {
-        for (int i = 0; i < theTables.size(); i++) {
-            for (int j = 0; j < theTables.elementAt(i).theLineTypes.size(); j++) {
-                if (theTables.elementAt(i).theLineTypes.elementAt(j)._name.equals(name)) {
-                    return theTables.elementAt(i).theLineTypes.elementAt(j);
+        lineTypeLookups.increment();
+        if (name == null) {
+            return null;
+        }
+        String key = symbolKey(name);
+        DXFLineType lt = lineTypesByName.get(key);
+        if (lt == null && countLineTypes() != indexedLineTypes) {
+            indexTables();
+            lt = lineTypesByName.get(key);
+        }
+        return lt;
+    }
+
+    private static String symbolKey(String name) {
+        return name == null ? "" : name.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds the blocks that are not in the symbol table yet. The Vectors are
+     * public, so the blocks are counted to find the ones added since.
+     */
+    private synchronized void indexBlocks() {
+        if (theBlocks.size() < indexedBlocks) {
+            blocksByName.clear();
+            indexedBlocks = 0;
+        }
+        for (; indexedBlocks < theBlocks.size(); indexedBlocks++) {
+            DXFBlock b = theBlocks.elementAt(indexedBlocks);
+            if (b._name != null) {
+                blocksByName.putIfAbsent(symbolKey(b._name), b);
+            }
+        }
+    }
+
+    /**
+     * Adds the layers and line types that are not in the symbol tables yet,
+     * see {@link #indexBlocks()}. The elements are counted per DXFTables, so
+     * only the ones added since the last call are visited.
+     */
+    private synchronized void indexTables() {
+        int tables = theTables.size();
+        boolean removed = tables < indexedTableLayers.length;
+        for (int i = 0; !removed && i < indexedTableLayers.length; i++) {
+            DXFTables t = theTables.elementAt(i);
+            removed = t.theLayers.size() < indexedTableLayers[i] || t.theLineTypes.size() < indexedTableLineTypes[i];
+        }
+        if (removed) {
+            layersByName.clear();
+            lineTypesByName.clear();
+            indexedTableLayers = new int[0];
+            indexedTableLineTypes = new int[0];
+        }
+        if (tables > indexedTableLayers.length) {
+            indexedTableLayers = Arrays.copyOf(indexedTableLayers, tables);
+            indexedTableLineTypes = Arrays.copyOf(indexedTableLineTypes, tables);
+        }
+        int layers = 0;
+        int lineTypes = 0;
+        for (int i = 0; i < tables; i++) {
+            DXFTables t = theTables.elementAt(i);
+            int size = t.theLayers.size();
+            for (int j = indexedTableLayers[i]; j < size; j++) {
+                DXFLayer l = t.theLayers.elementAt(j);
+                layersByName.putIfAbsent(symbolKey(l.getName()), l);
+            }
+            indexedTableLayers[i] = size;
+            layers += size;
+
+            size = t.theLineTypes.size();
+            for (int j = indexedTableLineTypes[i]; j < size; j++) {
+                DXFLineType lt = t.theLineTypes.elementAt(j);
+                if (lt._name != null) {
+                    lineTypesByName.putIfAbsent(symbolKey(lt._name), lt);
                 }
             }
+            indexedTableLineTypes[i] = size;
+            lineTypes += size;
         }
-        return null;
+        indexedLayers = layers;
+        indexedLineTypes = lineTypes;
     }
 
+    private int countLayers() {
+        int layers = 0;
+        for (int i = 0; i < theTables.size(); i++) {
+            layers += theTables.elementAt(i).theLayers.size();
+        }
+        return layers;
+    }
+
+    private int countLineTypes() {
+        int lineTypes = 0;
+        for (int i = 0; i < theTables.size(); i++) {
+            lineTypes += theTables.elementAt(i).theLineTypes.size();
+        }
+        return lineTypes;
+    }
+
+    public long getBlockLookupCount() {
+        return blockLookups.sum();
+    }
+
+    public long getLayerLookupCount() {
+        return layerLookups.sum();
+    }
+
+    public long getLineTypeLookupCount() {
+        return lineTypeLookups.sum();
+    }
+
+    /**
+     * Returns information about the file, with the sizes of the symbol tables
+     * and the number of lookups in them so far.
+     */
     public String getInfo() {
-        return info;
+        int layers = 0;
+        int lineTypes = 0;
+        for (int i = 0; i < theTables.size(); i++) {
+            layers += theTables.elementAt(i).theLayers.size();
+            lineTypes += theTables.elementAt(i).theLineTypes.size();
+        }
+        return info + "blocks: " + theBlocks.size() + ", layers: " + layers + ", line types: " + lineTypes
+                + "; lookups: " + getBlockLookupCount() + " block, " + getLayerLookupCount() + " layer, "
+                + getLineTypeLookupCount() + " line type";
+    }
+
+    /**
+     * Returns a rough estimate of the memory used by the tables and blocks in
+     * bytes, including the geometries the block entities get when inserted.
+     */
+    public long getEstimatedSize() {
+        long size = 0;
+        for (int i = 0; i < theTables.size(); i++) {
+            size += (long) TABLE_ENTRY_SIZE * (theTables.elementAt(i).theLayers.size() + theTables.elementAt(i).theLineTypes.size());
+        }
+        for (int i = 0; i < theBlocks.size(); i++) {
+            size += BLOCK_SIZE + (long) BLOCK_ENTITY_SIZE * theBlocks.elementAt(i).theEntities.size();
+        }
+        return size;
     }
 
     public GeometryFactory getGeometryFactory() {
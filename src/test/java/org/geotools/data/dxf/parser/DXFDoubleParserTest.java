@@ -0,0 +1,146 @@
+package org.geotools.data.dxf.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link DXFDoubleParser} gives the same doubles as
+ * {@link Double#parseDouble}, bit for bit, or leaves the number to it.
+ */
+public class DXFDoubleParserTest {
+
+    private static double parse(String s) {
+        byte[] bytes = ("  " + s + "  ").getBytes(StandardCharsets.US_ASCII);
+        return DXFDoubleParser.parse(bytes, 2, bytes.length - 2);
+    }
+
+    /**
+     * Checks a number the parser may leave to Double.parseDouble.
+     */
+    private static void check(String s) {
+        double value = parse(s);
+        if (!Double.isNaN(value)) {
+            assertEquals(s, Double.doubleToRawLongBits(Double.parseDouble(s)), Double.doubleToRawLongBits(value));
+        }
+    }
+
+    /**
+     * Checks a number the parser has to convert itself.
+     */
+    private static void checkParsed(String s) {
+        assertFalse(s + " not parsed", Double.isNaN(parse(s)));
+        check(s);
+    }
+
+    @Test
+    public void testCoordinates() {
+        String[] values = {
+            "0", "0.0", "-0.0", "+0.0", "1", "-1", "+1", "10.0", "123456.789", "-98765.4321",
+            ".5", "-.5", "+.5", "5.", "-5.", "0.1", "0.2", "0.3", "1e0", "1E5", "1.5e+3", "2.5E-3",
+            "-7.25e-10", "1e22", "1e23", "9007199254740993", "9007199254740992.5",
+            "155000.000000000", "3.141592653589793", "2.718281828459045", "1.7976931348623157e308",
+            "2.2250738585072014E-308", "123456789012345678", "0.000001", "1e-7"
+        };
+        for (String value : values) {
+            checkParsed(value);
+        }
+    }
+
+    @Test
+    public void testLongMantissas() {
+        // 19 digits fit the mantissa, 20 are truncated
+        checkParsed("1234567890123456789");
+        checkParsed("9999999999999999999");
+        checkParsed("0.1234567890123456789");
+        check("12345678901234567890");
+        check("99999999999999999999");
+        check("1.2345678901234567890123");
+        check("0.30000000000000000000001");
+        check("100000000000000000000000000001e-10");
+    }
+
+    @Test
+    public void testHalfwayCases() {
+        // 2^53 + 1 and other values exactly between two doubles round to even
+        check("9007199254740993");
+        check("9007199254740995");
+        check("9007199254740993.0000000000000001");
+        check("1.00000000000000011102230246251565404236316680908203125");
+        check("1.00000000000000011102230246251565404236316680908203124");
+        check("1.00000000000000033306690738754696212708950042724609375");
+        Random random = new Random(4711);
+        for (int i = 0; i < 10000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong() & 0x7fefffffffffffffL);
+            if (d == 0 || Double.isNaN(d)) {
+                continue;
+            }
+            // the exact midpoint between d and the next double
+            BigDecimal halfway = new BigDecimal(d).add(new BigDecimal(Math.nextUp(d))).divide(BigDecimal.valueOf(2));
+            check(halfway.toString());
+            check(halfway.toPlainString().length() < 400 ? halfway.toPlainString() : halfway.toString());
+        }
+    }
+
+    @Test
+    public void testExponentLimits() {
+        String[] values = {
+            "1e-320", "4.9e-324", "2.4e-324", "2.5e-324", "1e-400", "1e-342", "1e-343",
+            "2.2250738585072011e-308", "2.2250738585072012e-308", "1.7976931348623158e308",
+            "1.7976931348623159e308", "1e308", "1e309", "1e400", "-1e400", "1e-99999", "1e99999",
+            "0e999", "0.0e-999"
+        };
+        for (String value : values) {
+            check(value);
+        }
+    }
+
+    @Test
+    public void testNotNumbers() {
+        String[] values = { "", "+", "-", ".", "e5", "1e", "1e+", "1x", "NaN", "Infinity", "0x1p3", "1.2.3" };
+        for (String value : values) {
+            assertFalse(value, !Double.isNaN(parse(value)) && !isNumber(value));
+        }
+    }
+
+    private static boolean isNumber(String s) {
+        try {
+            Double.parseDouble(s);
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            // any double, as Double.toString prints it
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                check(Double.toString(d));
+            }
+            // coordinates with a few decimals
+            checkParsed(String.format(java.util.Locale.ROOT, "%.6f", (random.nextDouble() - 0.5) * 2e7));
+            // random digit strings with random exponents
+            StringBuilder sb = new StringBuilder();
+            int digits = 1 + random.nextInt(25);
+            for (int j = 0; j < digits; j++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextBoolean()) {
+                sb.insert(random.nextInt(sb.length() + 1), '.');
+            }
+            if (random.nextBoolean()) {
+                sb.append('e').append(random.nextInt(700) - 350);
+            }
+            check(sb.toString());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.geotools.data.dxf.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.geotools.data.dxf.entities.DXFEntity;
+import org.geotools.data.dxf.entities.DXFText;
+import org.junit.Test;
+
+/**
+ * Checks that the entities decoded from the lazy index are the entities an
+ * eager read returns.
+ */
+public class DXFLazyReadTest {
+    private static final String[] PAIRS = {
+        "0", "SECTION", "2", "HEADER", "9", "$ACADVER", "1", "AC1015", "0", "ENDSEC",
+        "0", "SECTION", "2", "BLOCKS",
+        "0", "BLOCK", "8", "0", "2", "B1", "70", "2", "10", "0.0", "20", "0.0", "30", "0.0",
+        "0", "LINE", "8", "0", "10", "0.0", "20", "0.0", "30", "0.0", "11", "1.0", "21", "1.0", "31", "0.0",
+        "0", "ENDBLK", "8", "0",
+        "0", "ENDSEC",
+        "0", "SECTION", "2", "ENTITIES",
+        "0", "LINE", "8", "WALLS", "10", "0.0", "20", "0.0", "30", "0.0", "11", "5.0", "21", "5.0", "31", "0.0",
+        "0", "INSERT", "8", "DOORS", "66", "1", "2", "B1", "10", "10.0", "20", "10.0", "30", "0.0",
+        "0", "ATTRIB", "8", "TAGS", "10", "11.0", "20", "12.0", "30", "0.0", "40", "1.0", "1", "D-1", "2", "NR", "70", "0",
+        "0", "ATTRIB", "8", "TAGS", "10", "13.0", "20", "14.0", "30", "0.0", "40", "1.0", "1", "OAK", "2", "MAT", "70", "0",
+        "0", "SEQEND", "8", "DOORS",
+        "0", "POLYLINE", "8", "WALLS", "66", "1", "70", "0",
+        "0", "VERTEX", "8", "WALLS", "10", "0.0", "20", "1.0",
+        "0", "VERTEX", "8", "WALLS", "10", "2.0", "20", "3.0",
+        "0", "SEQEND", "8", "WALLS",
+        "0", "POINT", "8", "WALLS", "10", "3.0", "20", "4.0", "30", "0.0",
+        "0", "ENDSEC",
+        "0", "EOF"
+    };
+
+    private static ByteBuffer getData() {
+        StringBuilder sb = new StringBuilder();
+        for (String line : PAIRS) {
+            sb.append(line).append("\r\n");
+        }
+        return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static List<String> describe(List<DXFEntity> entities) {
+        List<String> result = new ArrayList<String>();
+        for (DXFEntity e : entities) {
+            String text = e instanceof DXFText ? ((DXFText) e)._value : "";
+            result.add(e.getClass().getSimpleName() + " " + e.getRefLayerName() + " " + text + " " + e.getGeometry());
+        }
+        return result;
+    }
+
+    @Test
+    public void testLazyReadsTheEagerEntities() throws IOException {
+        DXFUnivers eager = new DXFUnivers(new ArrayList());
+        eager.read(getData());
+
+        DXFUnivers lazy = new DXFUnivers(new ArrayList());
+        DXFEntityIndex index = lazy.index(getData());
+        assertNotNull(index);
+        List<DXFEntity> entities = new ArrayList<DXFEntity>();
+        for (int i = 0; i < index.size(); i++) {
+            DXFEntity e = lazy.readEntity(index, i);
+            if (e != null) {
+                entities.add(e);
+            }
+        }
+
+        assertEquals(describe(eager.theEntities), describe(entities));
+        assertEquals(6, entities.size());
+    }
+}